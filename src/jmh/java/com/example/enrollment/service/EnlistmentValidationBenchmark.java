@@ -0,0 +1,209 @@
+package com.example.enrollment.service;
+
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Latency of the enlistment checks: {@link EnlistmentValidator} against the
+ * statements enlistSubject used to run one after another (student, course
+ * id, duplicate, units, course units, capacity, both schedule sets and the
+ * course info for the log). Writes are left out of both sides.
+ *
+ * Needs a MySQL server, since round trips are what is being measured. The data
+ * goes into its own database (enrollment_bench by default):
+ *
+ *   ./mvnw -Pjmh test-compile exec:exec -Djmh.args="EnlistmentValidation -jvmArgs -Dbench.url=jdbc:mysql://..."
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnlistmentValidationBenchmark {
+
+    static final int STUDENTS = 2_000;
+    static final int COURSES = 200;
+    static final int SECTIONS_PER_COURSE = 2;
+    static final int ENLISTMENTS_PER_STUDENT = 5;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private EnlistmentValidator validator;
+
+    private final List<long[]> requests = new ArrayList<>(); // { studentId, sectionId }
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("bench.url",
+            "jdbc:mysql://localhost:3306/enrollment_bench?createDatabaseIfNotExist=true");
+        dataSource = new SingleConnectionDataSource(url, System.getProperty("bench.user", "root"),
+            System.getProperty("bench.password", ""), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        createSchema();
+        seed(new Random(11));
+
+        CatalogService catalogService = new CatalogService(jdbcTemplate);
+        catalogService.refresh();
+        // Every section is in the active term, so the validator never falls back to SchedulingService
+        validator = new EnlistmentValidator(jdbcTemplate, catalogService, new SchedulingService());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dropTables();
+        dataSource.destroy();
+    }
+
+    private long[] nextRequest() {
+        long[] request = requests.get(next);
+        next = (next + 1) % requests.size();
+        return request;
+    }
+
+    @Benchmark
+    public EnlistmentValidator.Result validator() {
+        long[] request = nextRequest();
+        return validator.validate(request[0], (int) request[1]);
+    }
+
+    @Benchmark
+    public Object sequentialStatements() {
+        long[] request = nextRequest();
+        long studentId = request[0];
+        int sectionId = (int) request[1];
+
+        Map<String, Object> student = jdbcTemplate.queryForMap("SELECT * FROM students WHERE id = ?", studentId);
+        if ("ENROLLED".equalsIgnoreCase((String) student.get("applicant_status"))) return student;
+
+        Integer courseId = jdbcTemplate.queryForObject(
+            "SELECT course_id FROM class_sections WHERE section_id = ?", Integer.class, sectionId);
+        Integer duplicate = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM student_enlistments WHERE student_id = ? AND course_id = ?",
+            Integer.class, studentId, courseId);
+        if (duplicate != null && duplicate > 0) return duplicate;
+
+        Integer currentUnits = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(c.credit_units), 0) FROM student_enlistments se JOIN courses c ON se.course_id = c.course_id WHERE se.student_id = ?",
+            Integer.class, studentId);
+        Integer newSubjectUnits = jdbcTemplate.queryForObject(
+            "SELECT credit_units FROM courses WHERE course_id = ?", Integer.class, courseId);
+        if (currentUnits + newSubjectUnits > WaitlistService.MAX_UNITS) return currentUnits;
+
+        Map<String, Object> capacity = jdbcTemplate.queryForMap(
+            "SELECT cs.max_capacity, (SELECT COUNT(*) FROM student_enlistments se WHERE se.section_id = cs.section_id) AS current_count " +
+            "FROM class_sections cs WHERE cs.section_id = ?", sectionId);
+        if (((Number) capacity.get("current_count")).longValue() >= ((Number) capacity.get("max_capacity")).intValue()) {
+            return capacity;
+        }
+
+        List<Map<String, Object>> newSchedules = jdbcTemplate.queryForList(
+            "SELECT day_of_week, start_time, end_time FROM class_schedules WHERE section_id = ?", sectionId);
+        List<Map<String, Object>> currentSchedules = jdbcTemplate.queryForList(
+            "SELECT sch.start_time, sch.end_time, sch.day_of_week, c.course_title FROM student_enlistments se " +
+            "JOIN courses c ON se.course_id = c.course_id JOIN class_sections cs ON se.section_id = cs.section_id " +
+            "JOIN class_schedules sch ON cs.section_id = sch.section_id WHERE se.student_id = ?", studentId);
+        for (Map<String, Object> n : newSchedules) {
+            LocalTime newStart = ((Time) n.get("start_time")).toLocalTime();
+            LocalTime newEnd = ((Time) n.get("end_time")).toLocalTime();
+            for (Map<String, Object> e : currentSchedules) {
+                if (((Number) n.get("day_of_week")).intValue() == ((Number) e.get("day_of_week")).intValue()
+                        && newStart.isBefore(((Time) e.get("end_time")).toLocalTime())
+                        && newEnd.isAfter(((Time) e.get("start_time")).toLocalTime())) {
+                    return e;
+                }
+            }
+        }
+
+        return jdbcTemplate.queryForMap("SELECT course_code, course_title FROM courses WHERE course_id = ?", courseId);
+    }
+
+    private void createSchema() {
+        dropTables();
+        jdbcTemplate.execute("CREATE TABLE academic_terms (term_id INT PRIMARY KEY, term_code VARCHAR(20), " +
+            "term_name VARCHAR(50), status VARCHAR(20), start_date DATE)");
+        jdbcTemplate.execute("CREATE TABLE rooms (room_id INT PRIMARY KEY, room_code VARCHAR(20), building_name VARCHAR(50))");
+        jdbcTemplate.execute("CREATE TABLE faculty (faculty_id INT PRIMARY KEY, first_name VARCHAR(50), last_name VARCHAR(50))");
+        jdbcTemplate.execute("CREATE TABLE students (id BIGINT PRIMARY KEY, student_number VARCHAR(50), " +
+            "last_name VARCHAR(50), first_name VARCHAR(50), applicant_status VARCHAR(20))");
+        jdbcTemplate.execute("CREATE TABLE courses (course_id INT PRIMARY KEY, course_code VARCHAR(20), " +
+            "course_title VARCHAR(100), credit_units INT, active_status TINYINT)");
+        jdbcTemplate.execute("CREATE TABLE class_sections (section_id INT PRIMARY KEY, course_id INT, term_id INT, " +
+            "section_code VARCHAR(20), max_capacity INT, enrolled_count INT NOT NULL DEFAULT 0, INDEX (course_id))");
+        jdbcTemplate.execute("CREATE TABLE class_schedules (schedule_id INT AUTO_INCREMENT PRIMARY KEY, section_id INT, " +
+            "day_of_week INT, start_time TIME, end_time TIME, room_id INT, faculty_id INT, INDEX (section_id))");
+        jdbcTemplate.execute("CREATE TABLE student_enlistments (enlistment_id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+            "student_id BIGINT, course_id INT, section_id INT, INDEX (student_id, course_id), INDEX (section_id))");
+    }
+
+    private void dropTables() {
+        for (String table : new String[] { "student_enlistments", "class_schedules", "class_sections", "courses",
+                                           "students", "academic_terms", "rooms", "faculty" }) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        }
+    }
+
+    private void seed(Random random) {
+        jdbcTemplate.update("INSERT INTO academic_terms VALUES (1, '2026-1', 'First Semester 2026-2027', 'ACTIVE', '2026-08-01')");
+
+        List<Object[]> courses = new ArrayList<>();
+        for (int c = 1; c <= COURSES; c++) {
+            courses.add(new Object[] { c, "IT" + c, "Course " + c, 3 });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO courses VALUES (?, ?, ?, ?, 1)", courses);
+
+        // Each section meets twice a week for 90 minutes somewhere between 7:00 and 19:00
+        List<Object[]> sections = new ArrayList<>();
+        List<Object[]> schedules = new ArrayList<>();
+        int sectionCount = COURSES * SECTIONS_PER_COURSE;
+        for (int s = 1; s <= sectionCount; s++) {
+            sections.add(new Object[] { s, (s - 1) / SECTIONS_PER_COURSE + 1, "S" + s });
+            int day = 1 + random.nextInt(3);
+            LocalTime start = LocalTime.of(7, 0).plusMinutes(30L * random.nextInt(22));
+            for (int d : new int[] { day, day + 3 }) {
+                schedules.add(new Object[] { s, d, Time.valueOf(start), Time.valueOf(start.plusMinutes(90)) });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO class_sections (section_id, course_id, term_id, section_code, max_capacity) " +
+            "VALUES (?, ?, 1, ?, 60)", sections);
+        jdbcTemplate.batchUpdate("INSERT INTO class_schedules (section_id, day_of_week, start_time, end_time) VALUES (?, ?, ?, ?)",
+            schedules);
+
+        List<Object[]> students = new ArrayList<>();
+        List<Object[]> enlistments = new ArrayList<>();
+        for (int i = 1; i <= STUDENTS; i++) {
+            students.add(new Object[] { (long) i, String.format("2026-%05d", i), "Student" + i, "Test" });
+            for (int e = 0; e < ENLISTMENTS_PER_STUDENT; e++) {
+                int section = 1 + random.nextInt(sectionCount);
+                enlistments.add(new Object[] { (long) i, (section - 1) / SECTIONS_PER_COURSE + 1, section });
+            }
+            requests.add(new long[] { i, 1 + random.nextInt(sectionCount) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO students VALUES (?, ?, ?, ?, 'PENDING')", students);
+        jdbcTemplate.batchUpdate("INSERT INTO student_enlistments (student_id, course_id, section_id) VALUES (?, ?, ?)",
+            enlistments);
+        jdbcTemplate.update("UPDATE class_sections cs SET enrolled_count = " +
+            "(SELECT COUNT(*) FROM student_enlistments se WHERE se.section_id = cs.section_id)");
+    }
+}
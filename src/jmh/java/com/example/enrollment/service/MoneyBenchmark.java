@@ -0,0 +1,97 @@
+package com.example.enrollment.service;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.enrollment.util.Money;
+
+/**
+ * Assessment hot path, per ledger: the old double arithmetic (capped
+ * tuition, fixed fees, balance and eight installment statuses with the
+ * "threshold - 0.01" fudge), the same computation in long centavos, and
+ * the precompiled {@link FeePlan} the ledger page uses now.
+ *
+ * Run with -prof gc to compare allocation as well:
+ *   ./mvnw -Pjmh test-compile exec:exec -Djmh.args="MoneyBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    static final int LEDGERS = 1024;
+    static final int INSTALLMENTS = 8;
+
+    private final int[] units = new int[LEDGERS];
+    private final double[] paidDouble = new double[LEDGERS];
+    private final long[] paidCentavos = new long[LEDGERS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(17);
+        for (int i = 0; i < LEDGERS; i++) {
+            units[i] = random.nextInt(31);
+            paidCentavos[i] = random.nextInt(6_000_000);
+            paidDouble[i] = paidCentavos[i] / 100.0;
+        }
+    }
+
+    @Benchmark
+    public double doubleArithmetic() {
+        double sum = 0;
+        for (int i = 0; i < LEDGERS; i++) {
+            int charged = Math.min(units[i], 24);
+            double assessment = charged * 1500.00 + ((units[i] > 0) ? 7431.00 + 18562.00 : 0.00);
+            double balance = assessment - paidDouble[i];
+            double remaining = assessment - 3000.00;
+            double installment = (remaining > 0) ? remaining / INSTALLMENTS : 0;
+            int covered = 0;
+            for (int k = 0; k < INSTALLMENTS; k++) {
+                if (paidDouble[i] >= 3000.00 + installment * (k + 1) - 0.01) covered++;
+            }
+            sum += balance + covered;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long longCentavos() {
+        long sum = 0;
+        for (int i = 0; i < LEDGERS; i++) {
+            int charged = Math.min(units[i], 24);
+            long assessment = charged * 150_000L + ((units[i] > 0) ? 743_100L + 1_856_200L : 0);
+            long balance = assessment - paidCentavos[i];
+            long remaining = Math.max(assessment - 300_000L, 0);
+            int covered = 0;
+            for (int k = 0; k < INSTALLMENTS; k++) {
+                if (paidCentavos[i] >= 300_000L + Money.sharesThrough(remaining, INSTALLMENTS, k + 1)) covered++;
+            }
+            sum += balance + covered;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long compiledFeePlan() {
+        FeePlan plan = FeePlan.DEFAULT;
+        long sum = 0;
+        for (int i = 0; i < LEDGERS; i++) {
+            sum += plan.assessment(units[i]) - paidCentavos[i] + plan.installmentsCovered(units[i], paidCentavos[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.enrollment.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Trigram index against the LIKE '%x%' query it replaced
+ * (StudentRepository.findByStudentNumberContainingOrLastNameContainingIgnoreCase)
+ * over 100k students in an in-memory H2.
+ *
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="StudentSearch"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentSearchBenchmark {
+
+    private static final String[] LAST_NAMES = {
+        "Dela Cruz", "Garcia", "Reyes", "Ramos", "Mendoza", "Santos", "Flores", "Gonzales", "Bautista", "Villanueva",
+        "Fernandez", "Cruz", "De Guzman", "Lopez", "Perez", "Castillo", "Francisco", "Rivera", "Aquino", "Castro"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Juan", "Maria", "Jose", "Ana", "Mark", "Angel", "John", "Kristine", "Paolo", "Camille",
+        "Miguel", "Patricia", "Carlo", "Nicole", "Rafael", "Andrea", "Gabriel", "Bea", "Daniel", "Joy"
+    };
+
+    static final int STUDENTS = 100_000;
+
+    // exact number, number fragment, common surname, rare surname, two letters
+    @Param({ "2026-054321", "54321", "cruz", "villanueva3", "ma" })
+    public String query;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private StudentSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:students;MODE=MySQL;DB_CLOSE_DELAY=-1", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS students");
+        jdbcTemplate.execute("CREATE TABLE students (id BIGINT PRIMARY KEY, student_number VARCHAR(50), " +
+            "last_name VARCHAR(255), first_name VARCHAR(255), program1 VARCHAR(255), applicant_status VARCHAR(50))");
+
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            // A suffix on some surnames keeps the rare-name query selective
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + ((i % 97 == 0) ? String.valueOf(i % 10) : "");
+            rows.add(new Object[] { (long) i + 1, String.format("2026-%06d", i), lastName,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], "BSIT", "PENDING" });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO students VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        index = new StudentSearchIndex(jdbcTemplate);
+        index.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("DROP TABLE students");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public StudentSearchIndex.Result trigramIndex() {
+        return index.search(query, 0, DashboardService.DEFAULT_PAGE_SIZE);
+    }
+
+    // What the screens ran before: every match loaded, the first one used
+    @Benchmark
+    public List<Map<String, Object>> likeQuery() {
+        String like = "%" + query + "%";
+        return jdbcTemplate.queryForList(
+            "SELECT id, student_number, last_name, first_name, program1, applicant_status FROM students " +
+            "WHERE student_number LIKE ? OR UPPER(last_name) LIKE UPPER(?)", like, like);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.enrollment.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Amount-in-words for a batch of receipt amounts: the old recursive
+ * String concatenation over doubles, {@link NumberToWords#convertAmount}
+ * (one right-sized builder and one String per amount), and
+ * {@link NumberToWords#appendAmount} into a caller's builder as batch
+ * printing would use it.
+ *
+ * Run with -prof gc; gc.alloc.rate.norm is the bytes allocated per batch:
+ *   ./mvnw -Pjmh test-compile exec:exec -Djmh.args="NumberToWordsBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberToWordsBenchmark {
+
+    static final int AMOUNTS = 1024;
+
+    private static final String[] UNITS = { "", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight", "Nine", "Ten", "Eleven", "Twelve", "Thirteen", "Fourteen", "Fifteen", "Sixteen", "Seventeen", "Eighteen", "Nineteen" };
+    private static final String[] TENS = { "", "", "Twenty", "Thirty", "Forty", "Fifty", "Sixty", "Seventy", "Eighty", "Ninety" };
+
+    private final long[] centavos = new long[AMOUNTS];
+    private final StringBuilder page = new StringBuilder(64 * 1024);
+
+    @Setup
+    public void setUp() {
+        // Up to 999,999.99: the old version only spelled amounts below a million
+        Random random = new Random(23);
+        for (int i = 0; i < AMOUNTS; i++) {
+            centavos[i] = 1 + random.nextInt(99_999_999);
+        }
+    }
+
+    @Benchmark
+    public void recursiveConcatenation(Blackhole bh) {
+        for (long amount : centavos) {
+            double pesos = amount / 100;
+            bh.consume(recursive(pesos) + " Pesos & " + (amount % 100) + "/100 Only");
+        }
+    }
+
+    @Benchmark
+    public void convertAmount(Blackhole bh) {
+        for (long amount : centavos) {
+            bh.consume(NumberToWords.convertAmount(amount));
+        }
+    }
+
+    @Benchmark
+    public int appendAmount() {
+        page.setLength(0);
+        for (long amount : centavos) {
+            NumberToWords.appendAmount(page, amount).append('\n');
+        }
+        return page.length();
+    }
+
+    // The pre-table implementation, kept here as the baseline
+    private static String recursive(double n) {
+        if (n < 20) return UNITS[(int) n];
+        if (n < 100) return TENS[(int) n / 10] + ((n % 10 != 0) ? " " : "") + UNITS[(int) n % 10];
+        if (n < 1000) return UNITS[(int) n / 100] + " Hundred" + ((n % 100 != 0) ? " " : "") + recursive(n % 100);
+        return recursive(Math.floor(n / 1000)) + " Thousand" + ((n % 1000 != 0) ? " " : "") + recursive(n % 1000);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.enrollment.config;
+
+import java.util.List;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts money columns created as DOUBLE by earlier versions to exact
+ * DECIMAL(12,2). ddl-auto=update only adds columns, it never changes an
+ * existing column's type, so this runs once at startup and is a no-op
+ * after the first successful run. MySQL rounds the stored doubles to the
+ * nearest centavo during the ALTER.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MoneyColumnMigration implements CommandLineRunner {
+
+    private static final List<String[]> MONEY_COLUMNS = List.of(
+        new String[] { "payments", "amount" },
+        new String[] { "student_balances", "tuition_paid" });
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MoneyColumnMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        for (String[] column : MONEY_COLUMNS) {
+            List<String> types = jdbcTemplate.queryForList(
+                "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?",
+                String.class, column[0], column[1]);
+            if (types.isEmpty() || "decimal".equalsIgnoreCase(types.get(0))) continue;
+
+            jdbcTemplate.execute("ALTER TABLE " + column[0] + " MODIFY " + column[1] + " DECIMAL(12,2)");
+            System.out.println("SYSTEM: Migrated " + column[0] + "." + column[1] + " from " + types.get(0) + " to DECIMAL(12,2).");
+        }
+    }
+}
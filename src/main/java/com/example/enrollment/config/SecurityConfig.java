@@ -24,7 +24,17 @@ public class SecurityConfig {
                 // Ensure specific roles can access their specific pages
                 .requestMatchers("/admin/dashboard").hasRole("ADMIN")
                 .requestMatchers("/admin/walkin-payment").hasAnyRole("ADMIN", "CASHIER") 
+                .requestMatchers("/admin/receipts/print").hasAnyRole("ADMIN", "CASHIER")
                 .requestMatchers("/admin/cashier").hasAnyRole("CASHIER", "ADMIN", "FACULTY") // Added per your request
+                .requestMatchers("/admin/catalog/refresh").hasRole("ADMIN")
+                .requestMatchers("/admin/enlist-block").hasAnyRole("ADMIN", "FACULTY")
+                .requestMatchers("/admin/audit/stats").hasRole("ADMIN")
+                .requestMatchers("/admin/history-subject/archive").hasRole("ADMIN")
+                .requestMatchers("/admin/fee-schedules/**").hasRole("ADMIN")
+                .requestMatchers("/admin/statements/**").hasRole("ADMIN")
+                .requestMatchers("/admin/payments/import").hasAnyRole("ADMIN", "CASHIER")
+                .requestMatchers("/admin/events/**").hasRole("ADMIN")
+                .requestMatchers("/admin/**").hasAnyRole("ADMIN", "CASHIER", "FACULTY") // staff only; students never reach /admin
                 .anyRequest().authenticated()
             )
             .csrf(csrf -> csrf.disable())
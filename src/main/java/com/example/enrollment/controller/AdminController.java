@@ -1,60 +1,112 @@
 package com.example.enrollment.controller;
 
-import com.example.enrollment.entity.Payment;
 import com.example.enrollment.entity.Student;
-import com.example.enrollment.repository.PaymentRepository;
 import com.example.enrollment.repository.StudentRepository;
+import com.example.enrollment.repository.StudentSummary;
+import com.example.enrollment.service.CatalogService;
+import com.example.enrollment.service.DashboardService;
+import com.example.enrollment.service.DomainEventOutbox;
+import com.example.enrollment.service.FeeScheduleService;
 import com.example.enrollment.service.FinancialService;
-import org.springframework.jdbc.core.JdbcTemplate;
+import com.example.enrollment.service.PaymentPostingService;
+import com.example.enrollment.service.SettlementImportService;
+import com.example.enrollment.service.StatementRunService;
+import com.example.enrollment.service.StudentSearchIndex;
+import com.example.enrollment.service.SubjectHistoryService;
+import com.example.enrollment.service.SubjectLogArchive;
+import com.example.enrollment.service.SubjectLogWriter;
+import com.example.enrollment.util.Money;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import java.util.Date;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
 import java.util.UUID;
-import com.example.enrollment.entity.SubjectLog;
-import com.example.enrollment.repository.SubjectLogRepository;
 
 @Controller
 @RequestMapping("/admin") 
 public class AdminController {
 
     private final StudentRepository studentRepository;
-    private final PaymentRepository paymentRepository;
-    private final SubjectLogRepository subjectLogRepository;
-    private final JdbcTemplate jdbcTemplate;
     private final FinancialService financialService;
+    private final DashboardService dashboardService;
+    private final StudentSearchIndex studentSearchIndex;
+    private final CatalogService catalogService;
+    private final SubjectLogWriter subjectLogWriter;
+    private final SubjectHistoryService subjectHistoryService;
+    private final SubjectLogArchive subjectLogArchive;
+    private final FeeScheduleService feeScheduleService;
+    private final StatementRunService statementRunService;
+    private final SettlementImportService settlementImportService;
+    private final PaymentPostingService paymentPostingService;
+    private final DomainEventOutbox domainEventOutbox;
 
     public AdminController(StudentRepository studentRepository, 
-                           PaymentRepository paymentRepository,
-                           SubjectLogRepository subjectLogRepository,
-                           JdbcTemplate jdbcTemplate,
-                           FinancialService financialService) {
+                           FinancialService financialService,
+                           DashboardService dashboardService,
+                           StudentSearchIndex studentSearchIndex,
+                           CatalogService catalogService,
+                           SubjectLogWriter subjectLogWriter,
+                           SubjectHistoryService subjectHistoryService,
+                           SubjectLogArchive subjectLogArchive,
+                           FeeScheduleService feeScheduleService,
+                           StatementRunService statementRunService,
+                           SettlementImportService settlementImportService,
+                           PaymentPostingService paymentPostingService,
+                           DomainEventOutbox domainEventOutbox) {
         this.studentRepository = studentRepository;
-        this.paymentRepository = paymentRepository;
-        this.subjectLogRepository = subjectLogRepository;
-        this.jdbcTemplate = jdbcTemplate;
         this.financialService = financialService;
+        this.dashboardService = dashboardService;
+        this.studentSearchIndex = studentSearchIndex;
+        this.catalogService = catalogService;
+        this.subjectLogWriter = subjectLogWriter;
+        this.subjectHistoryService = subjectHistoryService;
+        this.subjectLogArchive = subjectLogArchive;
+        this.feeScheduleService = feeScheduleService;
+        this.statementRunService = statementRunService;
+        this.settlementImportService = settlementImportService;
+        this.paymentPostingService = paymentPostingService;
+        this.domainEventOutbox = domainEventOutbox;
     }
 
     @GetMapping("/dashboard")
-    public String dashboard(@RequestParam(value = "keyword", required = false) String keyword, Model model) {
-        long totalEnrollees = studentRepository.count();
-        long pendingCount = studentRepository.findAll().stream()
-                .filter(s -> "PENDING".equalsIgnoreCase(s.getApplicantStatus()))
-                .count();
+    public String dashboard(@RequestParam(value = "keyword", required = false) String keyword,
+                            @RequestParam(value = "sort", required = false) String sort,
+                            @RequestParam(value = "dir", defaultValue = "asc") String dir,
+                            @RequestParam(value = "cursor", required = false) String cursor,
+                            @RequestParam(value = "size", defaultValue = "50") int size,
+                            Model model) {
+        // 1. Status counts from one GROUP BY instead of loading every student
+        Map<String, Long> statusCounts = dashboardService.countByStatus();
+        long totalEnrollees = statusCounts.values().stream().mapToLong(Long::longValue).sum();
+        long pendingCount = statusCounts.getOrDefault("PENDING", 0L);
 
-        List<Student> searchResults;
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            searchResults = studentRepository.findByStudentNumberContainingOrLastNameContainingIgnoreCase(keyword, keyword);
-        } else {
-            searchResults = studentRepository.findAll(); 
-        }
+        // 2. One page of students: ranked index matches when searching, keyset pages otherwise
+        DashboardService.SortKey sortKey = DashboardService.SortKey.from(sort);
+        boolean desc = "desc".equalsIgnoreCase(dir);
+        DashboardService.Page page = (keyword != null && !keyword.trim().isEmpty())
+            ? dashboardService.searchPage(keyword, cursor, size)
+            : dashboardService.findPage(sortKey, desc, cursor, size);
 
         model.addAttribute("totalEnrollees", totalEnrollees);
         model.addAttribute("pendingCount", pendingCount);
-        model.addAttribute("students", searchResults);
+        model.addAttribute("statusCounts", statusCounts);
+        model.addAttribute("students", page.rows());
+        model.addAttribute("hasNext", page.hasNext());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("sort", sortKey.name().toLowerCase());
+        model.addAttribute("dir", desc ? "desc" : "asc");
+        model.addAttribute("size", size);
         model.addAttribute("keyword", keyword);
 
         return "AdminDashboard"; 
@@ -62,12 +114,14 @@ public class AdminController {
     
     @GetMapping("/walkin-payment")
     public String showWalkinPage(@RequestParam(value = "keyword", required = false) String keyword, Model model) {
+        // A fresh key per rendered form; resubmitting the form reuses it
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
         if (keyword != null && !keyword.trim().isEmpty()) {
             // 1. Search for the student (Same logic as Ledger)
-            Student s = studentRepository.findByStudentNumber(keyword.trim());
+            StudentSummary s = studentRepository.findSummaryByStudentNumber(keyword.trim());
             if (s == null) {
-                List<Student> results = studentRepository.findByLastNameContainingIgnoreCase(keyword.trim());
-                if (!results.isEmpty()) s = results.get(0);
+                Long matchId = studentSearchIndex.bestMatch(keyword);
+                if (matchId != null) s = studentRepository.findSummaryById(matchId).orElse(null);
             }
 
             if (s != null) {
@@ -82,17 +136,13 @@ public class AdminController {
         return "admin_walkin_payment"; // Your HTML file name
     }
 
-    private void calculateFinancials(Student s, Model model) {
-		// TODO Auto-generated method stub
-    	financialService.populateStudentFinancialData(s, model);
-	}
-
     @PostMapping("/process-walkin")
     public String processWalkInPayment(
             @RequestParam("studentIdentifier") String studentIdentifier,
-            @RequestParam("amount") Double amount,
+            @RequestParam("amount") BigDecimal amount,
             @RequestParam(value = "paymentType", defaultValue = "Cash") String paymentType,
             @RequestParam(value = "remarks", required = false) String remarks, // Added remarks parameter
+            @RequestParam(value = "idempotencyKey", required = false) String idempotencyKey,
             RedirectAttributes redirectAttributes 
     ) {
         String trimmedId = studentIdentifier.trim();
@@ -100,11 +150,11 @@ public class AdminController {
         // Search by Student Number first
         Student student = studentRepository.findByStudentNumber(trimmedId);
         
-        // If not found by Number, search by Last Name
+        // If not found by Number, take the best-ranked search match
         if (student == null) {
-            List<Student> results = studentRepository.findByLastNameContainingIgnoreCase(trimmedId);
-            if (!results.isEmpty()) {
-                student = results.get(0); // Take the first match
+            Long matchId = studentSearchIndex.bestMatch(trimmedId);
+            if (matchId != null) {
+                student = studentRepository.findById(matchId).orElse(null);
             }
         }
 
@@ -114,57 +164,142 @@ public class AdminController {
             return "redirect:/admin/walkin-payment";
         }
 
-        Payment payment = new Payment();
-        String transactionId = "WLK-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase(); 
-        payment.setTransactionId(transactionId);
-        
-        // Link to student
-        payment.setReferenceNumber(student.getStudentNumber()); 
-        payment.setAmount(amount);
-        payment.setPaymentMethod(paymentType + " (Over the Counter)"); 
-        
-        // ➤ SAVE THE REMARKS
-        payment.setRemarks(remarks); 
-        
-        payment.setPaymentDate(new Date());
-        payment.setStatus("COMPLETED");
-        
-        paymentRepository.save(payment);
-        
-        // Update student status if needed
-        Double tuitionPayments = jdbcTemplate.queryForObject(
-                "SELECT SUM(amount) FROM payments WHERE reference_number = ? " +
-                "AND (remarks = 'Tuition Fee' OR remarks IS NULL OR remarks = '')", 
-                Double.class, student.getStudentNumber());
-                
-            double totalPaid = (tuitionPayments != null) ? tuitionPayments : 0.00;
-
-            // 2. Change status based on the 3000 Downpayment Threshold
-            if (totalPaid >= 3000.00) {
-                // If they paid 3000 or more, they are ENROLLED
-                if (!"ENROLLED".equalsIgnoreCase(student.getApplicantStatus())) {
-                    student.setApplicantStatus("ENROLLED");
-                    studentRepository.save(student);
-                }
-            } else {
-                // If they haven't hit 3000 yet, they stay PENDING
-                if (!"PENDING".equalsIgnoreCase(student.getApplicantStatus())) {
-                    student.setApplicantStatus("PENDING");
-                    studentRepository.save(student);
-                }
-            }
+        // Forms rendered before keys existed post without one; they just don't get retry protection
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            idempotencyKey = UUID.randomUUID().toString();
+        }
+
+        PaymentPostingService.Posting posting;
+        try {
+            posting = paymentPostingService.postWalkIn(idempotencyKey, student, Money.of(amount), paymentType, remarks);
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Error: " + e.getMessage());
+            return "redirect:/admin/walkin-payment?keyword=" + student.getStudentNumber();
+        }
 
-        redirectAttributes.addFlashAttribute("successMessage", "Payment successful for " + student.getLastName() + " (" + student.getStudentNumber() + ")");
-        redirectAttributes.addFlashAttribute("transactionId", transactionId);
+        redirectAttributes.addFlashAttribute("successMessage", posting.replayed()
+            ? "Payment already recorded for " + student.getLastName() + " (" + student.getStudentNumber() + "); it was not posted again."
+            : "Payment successful for " + student.getLastName() + " (" + student.getStudentNumber() + ")");
+        redirectAttributes.addFlashAttribute("transactionId", posting.transactionId());
         
         // Redirect back with keyword to keep the student's info displayed
         return "redirect:/admin/walkin-payment?keyword=" + student.getStudentNumber();
     }
     
+    // Bulk import of a bank / online settlement CSV; returns the import report
+    @PostMapping("/payments/import")
+    @ResponseBody
+    public ResponseEntity<?> importSettlement(@RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Choose a settlement file to import."));
+        }
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(settlementImportService.importCsv(reader));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Reloads the course catalog snapshot after catalog rows were edited outside the app
+    @PostMapping("/catalog/refresh")
+    public String refreshCatalog(RedirectAttributes redirectAttributes) {
+        catalogService.refresh();
+        redirectAttributes.addFlashAttribute("successMessage", "Course catalog reloaded.");
+        return "redirect:/admin/cashier";
+    }
+
+    // Creates or replaces a term's fee schedule; the compiled plans reload after commit
+    @PostMapping("/fee-schedules/{termId}")
+    @ResponseBody
+    public ResponseEntity<?> saveFeeSchedule(@PathVariable Integer termId,
+                                             @RequestBody FeeScheduleService.ScheduleRequest request) {
+        try {
+            Integer scheduleId = feeScheduleService.save(termId, request).getScheduleId();
+            return ResponseEntity.ok(Map.of("scheduleId", scheduleId, "termId", termId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Reloads the fee plans after fee_schedules rows were edited outside the app
+    @PostMapping("/fee-schedules/refresh")
+    public String refreshFeeSchedules(RedirectAttributes redirectAttributes) {
+        feeScheduleService.refresh();
+        redirectAttributes.addFlashAttribute("successMessage", "Fee schedules reloaded.");
+        return "redirect:/admin/cashier";
+    }
+
+    // Term-wide statements as of a cut-off date (defaults to today); starts the run and returns its id
+    @PostMapping("/statements/run")
+    @ResponseBody
+    public ResponseEntity<?> runStatements(@RequestParam("termId") int termId,
+                                           @RequestParam(value = "cutoff", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate cutoff) {
+        try {
+            long runId = statementRunService.start(termId, (cutoff != null) ? cutoff : LocalDate.now());
+            return ResponseEntity.accepted().body(Map.of("runId", runId, "status", "RUNNING"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Progress of a statement run: status, students written so far, throughput once finished
+    @GetMapping("/statements/runs/{runId}")
+    @ResponseBody
+    public ResponseEntity<?> statementRunStatus(@PathVariable long runId) {
+        StatementRunService.RunStatus status = statementRunService.status(runId);
+        if (status == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Statement run " + runId + " not found."));
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    // Audit writer queue depth and throughput, to watch for backpressure
+    @GetMapping("/audit/stats")
+    @ResponseBody
+    public SubjectLogWriter.Stats auditStats() {
+        return subjectLogWriter.stats();
+    }
+
+    // Outbox backlog: events not yet handled, and those that ran out of attempts
+    @GetMapping("/events/stats")
+    @ResponseBody
+    public DomainEventOutbox.Stats eventStats() {
+        return domainEventOutbox.stats();
+    }
+
+    // Re-delivers every unhandled event now instead of waiting for the next replay pass
+    @PostMapping("/events/replay")
+    @ResponseBody
+    public Map<String, Object> replayEvents() {
+        return Map.of("replayed", domainEventOutbox.replay(0));
+    }
+
+    // Runs the closed-term archive job now instead of waiting for the weekly schedule
+    @PostMapping("/history-subject/archive")
+    public String archiveSubjectHistory(RedirectAttributes redirectAttributes) {
+        long moved = subjectLogArchive.archiveClosedTerms();
+        redirectAttributes.addFlashAttribute("successMessage", "Archived " + moved + " subject log row(s) of closed terms.");
+        return "redirect:/admin/history-subject";
+    }
+
     @GetMapping("/history-subject")
-    public String showSubjectHistory(Model model) {
-        List<SubjectLog> logs = subjectLogRepository.findAllByOrderByTimestampDesc();
-        model.addAttribute("logs", logs);
+    public String showSubjectHistory(@RequestParam(value = "studentNumber", required = false) String studentNumber,
+                                     @RequestParam(value = "courseCode", required = false) String courseCode,
+                                     @RequestParam(value = "action", required = false) String action,
+                                     @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "size", defaultValue = "50") int size,
+                                     Model model) {
+        // One keyset page of the history instead of every row ever logged
+        SubjectHistoryService.Filter filter = new SubjectHistoryService.Filter(studentNumber, courseCode, action, from, to);
+        SubjectHistoryService.Page page = subjectHistoryService.findPage(filter, cursor, size);
+
+        model.addAttribute("logs", page.logs());
+        model.addAttribute("hasNext", page.hasNext());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("filter", filter);
+        model.addAttribute("size", size);
         return "admin_history_subject";
     }
 }
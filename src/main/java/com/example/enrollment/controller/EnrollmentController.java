@@ -1,23 +1,36 @@
 package com.example.enrollment.controller;
 
-import com.example.enrollment.entity.Student;
 import com.example.enrollment.entity.SubjectLog; 
 import com.example.enrollment.repository.PaymentRepository;
 import com.example.enrollment.repository.StudentRepository;
+import com.example.enrollment.repository.StudentSummary;
 import com.example.enrollment.repository.SubjectLogRepository; 
+import com.example.enrollment.service.BlockEnlistmentService;
+import com.example.enrollment.service.CourseCatalog;
+import com.example.enrollment.service.DomainEvent;
+import com.example.enrollment.service.DomainEventOutbox;
+import com.example.enrollment.service.EnlistmentDropService;
+import com.example.enrollment.service.EnlistmentValidator;
 import com.example.enrollment.service.FinancialService;
+import com.example.enrollment.service.OfferingsService;
 import com.example.enrollment.service.SchedulingService;
+import com.example.enrollment.service.SeatReservationService;
+import com.example.enrollment.service.StudentBalanceService;
+import com.example.enrollment.service.StudentSearchIndex;
+import com.example.enrollment.util.Money;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.security.Principal;
-import java.util.Date; 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -31,19 +44,43 @@ public class EnrollmentController {
     private final JdbcTemplate jdbcTemplate;
     private final FinancialService financialService;
     private final SchedulingService schedulingService;
+    private final StudentBalanceService studentBalanceService;
+    private final StudentSearchIndex studentSearchIndex;
+    private final SeatReservationService seatReservationService;
+    private final OfferingsService offeringsService;
+    private final EnlistmentValidator enlistmentValidator;
+    private final BlockEnlistmentService blockEnlistmentService;
+    private final EnlistmentDropService enlistmentDropService;
+    private final DomainEventOutbox domainEventOutbox;
 
     public EnrollmentController(StudentRepository studentRepository, 
                                 PaymentRepository paymentRepository,
                                 SubjectLogRepository subjectLogRepository, 
                                 JdbcTemplate jdbcTemplate,
                                 FinancialService financialService,
-                                SchedulingService schedulingService) {
+                                SchedulingService schedulingService,
+                                StudentBalanceService studentBalanceService,
+                                StudentSearchIndex studentSearchIndex,
+                                SeatReservationService seatReservationService,
+                                OfferingsService offeringsService,
+                                EnlistmentValidator enlistmentValidator,
+                                BlockEnlistmentService blockEnlistmentService,
+                                EnlistmentDropService enlistmentDropService,
+                                DomainEventOutbox domainEventOutbox) {
         this.studentRepository = studentRepository;
         this.paymentRepository = paymentRepository;
         this.subjectLogRepository = subjectLogRepository; 
         this.jdbcTemplate = jdbcTemplate;
         this.financialService = financialService;
         this.schedulingService = schedulingService;
+        this.studentBalanceService = studentBalanceService;
+        this.studentSearchIndex = studentSearchIndex;
+        this.seatReservationService = seatReservationService;
+        this.offeringsService = offeringsService;
+        this.enlistmentValidator = enlistmentValidator;
+        this.blockEnlistmentService = blockEnlistmentService;
+        this.enlistmentDropService = enlistmentDropService;
+        this.domainEventOutbox = domainEventOutbox;
     }
 
     // --- LOGIN & NAVIGATION ---
@@ -65,10 +102,10 @@ public class EnrollmentController {
     @GetMapping("/index")
     public String index(Model model, Principal principal) {
         if (principal != null) {
-            Student student = studentRepository.findByStudentNumber(principal.getName());
+            StudentSummary student = studentRepository.findSummaryByStudentNumber(principal.getName());
             if (student != null) {
                 model.addAttribute("student", student);
-                calculateFinancials(student, model);
+                populateBalanceSummary(student, model);
             }
         }
         return "index";
@@ -77,29 +114,25 @@ public class EnrollmentController {
     // --- ENLISTMENT & CASHIER TERMINAL ---
 
     @GetMapping("/admin/cashier")
-    public String showCashier(@RequestParam(value = "keyword", required = false) String keyword, Model model) {
+    public String showCashier(@RequestParam(value = "keyword", required = false) String keyword,
+                              @RequestParam(value = "courseCode", required = false) String courseCode,
+                              @RequestParam(value = "offeringsPage", defaultValue = "0") int offeringsPage,
+                              Model model) {
         if (keyword != null && !keyword.trim().isEmpty()) {
-            Student s = studentRepository.findByStudentNumber(keyword.trim());
+            StudentSummary s = studentRepository.findSummaryByStudentNumber(keyword.trim());
             if (s == null) {
-                List<Student> list = studentRepository.findByStudentNumberContainingOrLastNameContainingIgnoreCase(keyword, keyword);
-                if (!list.isEmpty()) s = list.get(0);
+                Long matchId = studentSearchIndex.bestMatch(keyword);
+                if (matchId != null) s = studentRepository.findSummaryById(matchId).orElse(null);
             }
             
             if (s != null) {
                 model.addAttribute("student", s);
-                calculateFinancials(s, model);
                 financialService.populateStudentFinancialData(s, model);
-                model.addAttribute("allCourses", jdbcTemplate.queryForList(
-                    "SELECT c.course_id, c.course_code, c.course_title, cs.section_id, cs.section_code, COALESCE(cs.max_capacity, 40) as max_capacity, " +
-                    "(SELECT COUNT(*) FROM student_enlistments se WHERE se.section_id = cs.section_id) as enrolled_count, " +
-                    "(SELECT GROUP_CONCAT(CONCAT( " +
-                    "   CASE sch.day_of_week WHEN 1 THEN 'Mon' WHEN 2 THEN 'Tue' WHEN 3 THEN 'Wed' WHEN 4 THEN 'Thu' WHEN 5 THEN 'Fri' WHEN 6 THEN 'Sat' WHEN 7 THEN 'Sun' ELSE '' END, " +
-                    "   ' ', TIME_FORMAT(sch.start_time, '%h:%i %p'), '-', TIME_FORMAT(sch.end_time, '%h:%i %p') " +
-                    ") SEPARATOR ', ') FROM class_schedules sch WHERE sch.section_id = cs.section_id) as schedule " +
-                    "FROM courses c " +
-                    "JOIN class_sections cs ON c.course_id = cs.course_id " +
-                    "WHERE c.active_status = 1"
-                ));
+                // Offerings come from the maintained read model, filtered by course code and paged
+                OfferingsService.Page offerings = offeringsService.page(courseCode, offeringsPage, OfferingsService.DEFAULT_PAGE_SIZE);
+                model.addAttribute("allCourses", offerings.rows());
+                model.addAttribute("offerings", offerings);
+                model.addAttribute("courseCode", courseCode);
             } else {
                 model.addAttribute("errorMessage", "Student not found.");
             }
@@ -115,45 +148,23 @@ public class EnrollmentController {
                                 @RequestParam(required = false, defaultValue = "false") boolean confirmWaitlist,
                                 RedirectAttributes ra) {
         
-        Student s = studentRepository.findById(studentId).orElse(null);
-        if (s == null) {
-            ra.addFlashAttribute("errorMessage", "Student not found.");
+        // Every precondition on one connection; the result says which check failed
+        EnlistmentValidator.Result check = enlistmentValidator.validate(studentId, sectionId);
+        if (check.outcome() == EnlistmentValidator.Outcome.STUDENT_NOT_FOUND) {
+            ra.addFlashAttribute("errorMessage", check.message());
             return "redirect:/admin/cashier";
         }
-        String studentNum = s.getStudentNumber();
-
-        // ---> NEW: Block adding subjects if the student is already enrolled <---
-        if ("ENROLLED".equalsIgnoreCase(s.getApplicantStatus())) {
-            ra.addFlashAttribute("errorMessage", "Student already enrolled. Please proceed to Registrar to Add and Drop subjects.");
-            return "redirect:/admin/cashier?keyword=" + studentNum;
-        }
+        String studentNum = check.studentNumber();
 
         try {
-            Integer courseId = jdbcTemplate.queryForObject(
-                "SELECT course_id FROM class_sections WHERE section_id = ?", Integer.class, sectionId);
-
-            Integer duplicate = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM student_enlistments WHERE student_id = ? AND course_id = ?",
-                Integer.class, studentId, courseId);
-                
-            if (duplicate != null && duplicate > 0) {
-                ra.addFlashAttribute("errorMessage", "Error: This subject is already enlisted.");
-                return "redirect:/admin/cashier?keyword=" + studentNum;
-            }
-            
-            Integer currentUnits = jdbcTemplate.queryForObject(
-                    "SELECT COALESCE(SUM(c.credit_units), 0) FROM student_enlistments se JOIN courses c ON se.course_id = c.course_id WHERE se.student_id = ?",
-                    Integer.class, studentId);
-
-            Integer newSubjectUnits = jdbcTemplate.queryForObject(
-                "SELECT credit_units FROM courses WHERE course_id = ?", Integer.class, courseId);
-
-            if ((currentUnits + newSubjectUnits) > 24) {
-                ra.addFlashAttribute("errorMessage", "Error: Maximum limit of 24 units reached. Current: " + currentUnits + " units.");
+            EnlistmentValidator.Outcome outcome = check.outcome();
+            if (outcome != EnlistmentValidator.Outcome.OK && outcome != EnlistmentValidator.Outcome.FULL) {
+                ra.addFlashAttribute("errorMessage", check.message());
                 return "redirect:/admin/cashier?keyword=" + studentNum;
             }
 
-            if (schedulingService.isSectionFull(sectionId)) {
+            // The counter read is only a hint; the atomic reservation decides who gets the last seat
+            if (outcome == EnlistmentValidator.Outcome.FULL || !seatReservationService.reserve(sectionId)) {
                 if (!confirmWaitlist) {
                     ra.addFlashAttribute("showWaitlistPrompt", true);
                     ra.addFlashAttribute("pendingSectionId", sectionId);
@@ -164,33 +175,51 @@ public class EnrollmentController {
                 return "redirect:/admin/cashier?keyword=" + studentNum;
             }
 
-            schedulingService.validateStudentScheduleConflict(studentId, sectionId);
+            CourseCatalog.CourseInfo course = check.course();
+            Integer courseId = course.courseId();
 
             jdbcTemplate.update("INSERT INTO student_enlistments (student_id, course_id, section_id) VALUES (?, ?, ?)", 
                                studentId, courseId, sectionId);
+            studentBalanceService.applyUnits(studentId, course.creditUnits());
 
-            Map<String, Object> courseInfo = jdbcTemplate.queryForMap("SELECT course_code, course_title FROM courses WHERE course_id = ?", courseId);
-            
-            SubjectLog log = new SubjectLog();
-            log.setStudentNumber(studentNum);
-            log.setAction("ADDED");
-            log.setCourseCode((String) courseInfo.get("course_code"));
-            log.setCourseTitle((String) courseInfo.get("course_title"));
-            log.setTimestamp(new Date());
-            log.setPerformedBy("Admin");
-            subjectLogRepository.save(log);
+            // Audited from the outbox once this commits
+            domainEventOutbox.publish(new DomainEvent.SubjectsEnlisted(studentNum,
+                List.of(new DomainEvent.Subject(courseId, course.courseCode(), course.courseTitle())), "Admin", new Date()));
 
             ra.addFlashAttribute("successMessage", "Subject added successfully!");
 
         } catch (IllegalStateException e) {
+            // Undo the seat reservation along with anything else written so far
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             ra.addFlashAttribute("errorMessage", e.getMessage());
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             ra.addFlashAttribute("errorMessage", "An error occurred: " + e.getLocalizedMessage());
         }
         
         return "redirect:/admin/cashier?keyword=" + studentNum;
     }
 
+    /**
+     * JSON body for block enlistment.
+     */
+    public record BlockEnlistmentRequest(List<String> studentNumbers, List<Integer> sectionIds) {}
+
+    // Block sectioning: enlists a cohort into a set of sections in one request
+    @PostMapping("/admin/enlist-block")
+    @PreAuthorize("hasAnyRole('ADMIN', 'FACULTY')")
+    @ResponseBody
+    public ResponseEntity<?> enlistBlock(@RequestBody BlockEnlistmentRequest request) {
+        if (request.studentNumbers() == null || request.sectionIds() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "studentNumbers and sectionIds are required."));
+        }
+        try {
+            return ResponseEntity.ok(blockEnlistmentService.enlist(request.studentNumbers(), request.sectionIds(), "Admin"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/admin/remove-subjects-bulk")
     @PreAuthorize("hasRole('ROLE_ADMIN', 'ROLE_FACULTY')")
     @Transactional
@@ -200,7 +229,7 @@ public class EnrollmentController {
             RedirectAttributes ra) {
 
         // ---> NEW: Block removing subjects if the student is already enrolled <---
-        Student s = studentRepository.findByStudentNumber(studentNumber);
+        StudentSummary s = studentRepository.findSummaryByStudentNumber(studentNumber);
         if (s != null && "ENROLLED".equalsIgnoreCase(s.getApplicantStatus())) {
             ra.addFlashAttribute("errorMessage", "student already enrolled proceed to registrar to add and drop subjects");
             return "redirect:/admin/cashier?keyword=" + studentNumber;
@@ -211,35 +240,8 @@ public class EnrollmentController {
             return "redirect:/admin/cashier?keyword=" + studentNumber;
         }
 
-        for (Long id : ids) {
-            List<Map<String, Object>> results = jdbcTemplate.queryForList(
-                "SELECT se.course_id, c.course_code, c.course_title " +
-                "FROM student_enlistments se " +
-                "JOIN courses c ON se.course_id = c.course_id " +
-                "WHERE se.enlistment_id = ?", id);
-            
-            if (!results.isEmpty()) {
-                Map<String, Object> info = results.get(0);
-                
-                Object rawId = info.get("course_id");
-                Integer cId = (rawId != null) ? ((Number) rawId).intValue() : null;
-                
-                SubjectLog log = new SubjectLog();
-                log.setStudentNumber(studentNumber);
-                log.setAction("REMOVED");
-                log.setCourseCode((String) info.get("course_code"));
-                log.setCourseTitle((String) info.get("course_title"));
-                log.setTimestamp(new Date());
-                log.setPerformedBy("Admin");
-                subjectLogRepository.save(log);
-
-                jdbcTemplate.update("DELETE FROM student_enlistments WHERE enlistment_id = ?", id);
-                
-                if (cId != null) {
-                    schedulingService.promoteFromWaitlist(cId);
-                }
-            }
-        }
+        // Read, delete, audit and backfill the whole selection at once
+        enlistmentDropService.drop(studentNumber, ids, "Admin");
         
         ra.addFlashAttribute("successMessage", "Successfully removed selected subjects.");
         return "redirect:/admin/cashier?keyword=" + studentNumber;
@@ -250,10 +252,9 @@ public class EnrollmentController {
     @GetMapping("/account_status")
     public String showAccountStatus(@RequestParam(value = "studentNumber", required = false) String studentNumber, Model model) {
         if (studentNumber != null && !studentNumber.isEmpty()) {
-            Student student = studentRepository.findByStudentNumber(studentNumber.trim());
+            StudentSummary student = studentRepository.findSummaryByStudentNumber(studentNumber.trim());
             if (student != null) {
                 model.addAttribute("student", student);
-                calculateFinancials(student, model); 
                 financialService.populateStudentFinancialData(student, model);
                 
                 List<SubjectLog> history = subjectLogRepository.findByStudentNumberOrderByTimestampDesc(student.getStudentNumber());
@@ -269,61 +270,22 @@ public class EnrollmentController {
     @GetMapping("/status")
     public String showStatus(@RequestParam(value = "searchRef", required = false) String ref, Model model) {
         if (ref != null) {
-            Student s = studentRepository.findByStudentNumber(ref.trim());
+            StudentSummary s = studentRepository.findSummaryByStudentNumber(ref.trim());
             if (s != null) {
                 model.addAttribute("student", s);
-                calculateFinancials(s, model);
+                populateBalanceSummary(s, model);
             }
         }
         return "enrollment_status";
     }
 
     // --- HELPER METHOD ---
-    private void calculateFinancials(Student student, Model model) {
-        Integer totalUnits = jdbcTemplate.queryForObject(
-            "SELECT COALESCE(SUM(c.credit_units), 0) FROM student_enlistments se JOIN courses c ON se.course_id = c.course_id WHERE se.student_id = ?",
-            Integer.class, student.getId());
-        
-        int unitsToCharge = (totalUnits != null) ? totalUnits : 0;
-        if (unitsToCharge > 24) {
-            unitsToCharge = 24;
-        }
-        double tuition = unitsToCharge * 1500.00;
-        
-        Double tuitionPaymentsFromDb = jdbcTemplate.queryForObject(
-            "SELECT SUM(amount) FROM payments WHERE reference_number = ? " +
-            "AND (remarks = 'Tuition Fee' OR remarks IS NULL OR remarks = '')", 
-            Double.class, student.getStudentNumber());
-            
-        double totalPaid = (tuitionPaymentsFromDb != null) ? tuitionPaymentsFromDb : 0.00;
-
-     // NEW: Calculate Misc and Other fees based on enrollment status
-        double miscTotal = (totalUnits != null && totalUnits > 0) ? 7431.00 : 0.00;
-        double otherFeesTotal = (totalUnits != null && totalUnits > 0) ? 18562.00 : 0.00;
-
-        model.addAttribute("totalUnits", totalUnits);
-        model.addAttribute("tuitionTotal", tuition);
-        model.addAttribute("totalOnlinePayments", totalPaid);
-        model.addAttribute("outstandingBalance", (tuition + miscTotal + otherFeesTotal) - totalPaid);
-        
-        List<Map<String, Object>> enlisted = jdbcTemplate.queryForList(
-            "SELECT se.enlistment_id, c.course_code, c.course_title, c.credit_units, " +
-            "COALESCE(GROUP_CONCAT(CONCAT( " +
-            "   CASE sch.day_of_week WHEN 1 THEN 'Mon' WHEN 2 THEN 'Tue' WHEN 3 THEN 'Wed' WHEN 4 THEN 'Thu' WHEN 5 THEN 'Fri' WHEN 6 THEN 'Sat' WHEN 7 THEN 'Sun' ELSE '' END, " +
-            "   ' ', TIME_FORMAT(sch.start_time, '%h:%i %p'), '-', TIME_FORMAT(sch.end_time, '%h:%i %p') " +
-            ") SEPARATOR ', '), 'TBA') as schedule " +
-            "FROM student_enlistments se " +
-            "JOIN courses c ON se.course_id = c.course_id " +
-            "LEFT JOIN class_sections cs ON se.section_id = cs.section_id " + 
-            "LEFT JOIN class_schedules sch ON cs.section_id = sch.section_id " +
-            "WHERE se.student_id = ? GROUP BY se.enlistment_id", student.getId());
-        model.addAttribute("enlistedSubjects", enlisted);
-
-        List<Map<String, Object>> paymentHistory = jdbcTemplate.queryForList(
-            "SELECT transaction_id, amount, payment_method, payment_date, remarks " + 
-            "FROM payments WHERE reference_number = ? ORDER BY payment_date DESC",
-            student.getStudentNumber());
-            
-        model.addAttribute("paymentHistory", paymentHistory);
+    // Summary pages only need the totals, which are one primary-key lookup on student_balances
+    private void populateBalanceSummary(StudentSummary student, Model model) {
+        StudentBalanceService.Balance balance = studentBalanceService.find(student.getId());
+        model.addAttribute("totalUnits", balance.totalUnits());
+        model.addAttribute("totalOnlinePayments", Money.toDecimal(balance.tuitionPaid()));
+        model.addAttribute("outstandingBalance",
+            Money.toDecimal(financialService.computeAssessment(balance.totalUnits()) - balance.tuitionPaid()));
     }
 }
\ No newline at end of file
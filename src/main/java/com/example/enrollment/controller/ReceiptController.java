@@ -1,52 +1,68 @@
 package com.example.enrollment.controller;
 
-import com.example.enrollment.entity.Payment;
-import com.example.enrollment.entity.Student;
-import com.example.enrollment.repository.PaymentRepository;
-import com.example.enrollment.repository.StudentRepository;
-import com.example.enrollment.util.NumberToWords;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.example.enrollment.service.ReceiptSnapshotService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-// 1. CHANGED IMPORT: Use SimpleDateFormat for java.util.Date types
-import java.text.SimpleDateFormat;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @Controller
 public class ReceiptController {
 
-    @Autowired private PaymentRepository paymentRepository;
-    @Autowired private StudentRepository studentRepository;
+    private static final MediaType HTML = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
 
+    private final ReceiptSnapshotService receiptSnapshotService;
+
+    public ReceiptController(ReceiptSnapshotService receiptSnapshotService) {
+        this.receiptSnapshotService = receiptSnapshotService;
+    }
+
+    // Served from the frozen snapshot; a reprint the browser already has gets a 304 through the ETag
     @GetMapping("/print-receipt/{transactionId}")
-    public String printReceipt(@PathVariable String transactionId, Model model) {
-        // Find payment by Transaction ID
-        Payment payment = paymentRepository.findByTransactionId(transactionId);
-        
-        if (payment == null) {
-            return "redirect:/account-status"; // Redirect back if not found
+    public ResponseEntity<String> printReceipt(@PathVariable String transactionId) {
+        ReceiptSnapshotService.Rendered receipt = receiptSnapshotService.render(transactionId);
+
+        if (receipt == null) {
+            // Redirect back if not found
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create("/account-status")).build();
         }
-        
-        // Find the student using the reference number stored in the payment
-        // (This matches the HTML form where name="referenceNumber" holds the student ID)
-        Student student = studentRepository.findByStudentNumber(payment.getReferenceNumber());
-
-        model.addAttribute("payment", payment);
-        model.addAttribute("student", student);
-        
-        // Convert Amount to Words
-        model.addAttribute("amountInWords", NumberToWords.convertAmount(payment.getAmount()));
-        
-        // 2. THE FIX: formatting the Date using SimpleDateFormat
-        SimpleDateFormat sdf = new SimpleDateFormat("MM-dd-yyyy");
-        String dateString = sdf.format(payment.getPaymentDate());
-        model.addAttribute("formattedDate", dateString);
-        
-        // Set Term (You can make this dynamic later)
-        model.addAttribute("term", "1st Sem, A.Y. 2024-2025"); 
-        
-        return "receipt";
+
+        return ResponseEntity.ok()
+            .eTag(receipt.etag())
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .contentType(HTML)
+            .body(receipt.html());
+    }
+
+    // Every receipt of a period (e.g. a cashier's shift) as one printable document, streamed as it renders
+    @GetMapping("/admin/receipts/print")
+    public ResponseEntity<?> printReceipts(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "'from' must be before 'to'."));
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            int printed = receiptSnapshotService.printBatch(Timestamp.valueOf(from), Timestamp.valueOf(to), writer);
+            System.out.println("Receipt Batch: " + printed + " receipt(s) printed for " + from + " to " + to);
+        };
+        return ResponseEntity.ok().contentType(HTML).body(body);
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,11 @@ package com.example.enrollment.entity;
 import java.time.LocalDate;
 import jakarta.persistence.*;
 
+import com.example.enrollment.service.CatalogChangeListener;
+import com.example.enrollment.service.FeeScheduleChangeListener;
+
 @Entity
+@EntityListeners({CatalogChangeListener.class, FeeScheduleChangeListener.class})
 @Table(name = "academic_terms")
 public class AcademicTerm {
     @Id
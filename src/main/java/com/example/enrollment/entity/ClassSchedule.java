@@ -4,6 +4,7 @@ import java.time.LocalTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -11,7 +12,10 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
+import com.example.enrollment.service.CatalogChangeListener;
+
 @Entity
+@EntityListeners(CatalogChangeListener.class)
 @Table(name = "class_schedules")
 public class ClassSchedule {
     @Id
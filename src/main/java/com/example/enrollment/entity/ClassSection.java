@@ -2,6 +2,7 @@ package com.example.enrollment.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -10,7 +11,10 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
+import com.example.enrollment.service.CatalogChangeListener;
+
 @Entity
+@EntityListeners(CatalogChangeListener.class)
 @Table(name = "class_sections", 
        uniqueConstraints = {@UniqueConstraint(columnNames = {"term_id", "course_id", "section_code"})})
 public class ClassSection {
@@ -35,6 +39,11 @@ public class ClassSection {
 
     private Integer maxCapacity;
 
+    // Seats taken; maintained only by SeatReservationService with conditional updates,
+    // so saving a section never writes a stale copy back (new rows start at the column default)
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer enrolledCount = 0;
+
     @Column(length = 20)
     private String sectionStatus = "Planning";
 
@@ -2,6 +2,7 @@ package com.example.enrollment.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -9,7 +10,10 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
+import com.example.enrollment.service.CatalogChangeListener;
+
 @Entity
+@EntityListeners(CatalogChangeListener.class)
 @Table(name = "faculty")
 public class Faculty {
     @Id
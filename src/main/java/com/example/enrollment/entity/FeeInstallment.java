@@ -0,0 +1,59 @@
+package com.example.enrollment.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import com.example.enrollment.service.FeeScheduleChangeListener;
+
+/**
+ * One installment due date of a {@link FeeSchedule}. The balance after
+ * the downpayment is split evenly across a schedule's installments.
+ */
+@Entity
+@EntityListeners(FeeScheduleChangeListener.class)
+@Table(name = "fee_installments",
+       uniqueConstraints = {@UniqueConstraint(columnNames = {"schedule_id", "sequence_no"})})
+public class FeeInstallment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer installmentId;
+
+    @ManyToOne
+    @JoinColumn(name = "schedule_id", nullable = false)
+    private FeeSchedule schedule;
+
+    @Column(name = "sequence_no", nullable = false)
+    private Integer sequenceNo; // 1-based order within the schedule
+
+    @Column(length = 50, nullable = false)
+    private String label; // e.g., "1st Installment"
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    // --- GETTERS AND SETTERS ---
+    public Integer getInstallmentId() { return installmentId; }
+    public void setInstallmentId(Integer installmentId) { this.installmentId = installmentId; }
+
+    public FeeSchedule getSchedule() { return schedule; }
+    public void setSchedule(FeeSchedule schedule) { this.schedule = schedule; }
+
+    public Integer getSequenceNo() { return sequenceNo; }
+    public void setSequenceNo(Integer sequenceNo) { this.sequenceNo = sequenceNo; }
+
+    public String getLabel() { return label; }
+    public void setLabel(String label) { this.label = label; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+}
@@ -0,0 +1,72 @@
+package com.example.enrollment.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import com.example.enrollment.service.FeeScheduleChangeListener;
+
+/**
+ * Fees charged in one academic term. The installment due dates live in
+ * {@link FeeInstallment}; FeeScheduleService compiles both into an
+ * in-memory plan.
+ */
+@Entity
+@EntityListeners(FeeScheduleChangeListener.class)
+@Table(name = "fee_schedules",
+       uniqueConstraints = {@UniqueConstraint(columnNames = {"term_id"})})
+public class FeeSchedule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer scheduleId;
+
+    @ManyToOne
+    @JoinColumn(name = "term_id", nullable = false)
+    private AcademicTerm term;
+
+    @Column(precision = 12, scale = 2, nullable = false)
+    private BigDecimal ratePerUnit;
+
+    @Column(nullable = false)
+    private Integer unitCap; // Units beyond this are not charged tuition
+
+    @Column(precision = 12, scale = 2, nullable = false)
+    private BigDecimal miscFees;
+
+    @Column(precision = 12, scale = 2, nullable = false)
+    private BigDecimal otherFees;
+
+    @Column(precision = 12, scale = 2, nullable = false)
+    private BigDecimal downpayment;
+
+    // --- GETTERS AND SETTERS ---
+    public Integer getScheduleId() { return scheduleId; }
+    public void setScheduleId(Integer scheduleId) { this.scheduleId = scheduleId; }
+
+    public AcademicTerm getTerm() { return term; }
+    public void setTerm(AcademicTerm term) { this.term = term; }
+
+    public BigDecimal getRatePerUnit() { return ratePerUnit; }
+    public void setRatePerUnit(BigDecimal ratePerUnit) { this.ratePerUnit = ratePerUnit; }
+
+    public Integer getUnitCap() { return unitCap; }
+    public void setUnitCap(Integer unitCap) { this.unitCap = unitCap; }
+
+    public BigDecimal getMiscFees() { return miscFees; }
+    public void setMiscFees(BigDecimal miscFees) { this.miscFees = miscFees; }
+
+    public BigDecimal getOtherFees() { return otherFees; }
+    public void setOtherFees(BigDecimal otherFees) { this.otherFees = otherFees; }
+
+    public BigDecimal getDownpayment() { return downpayment; }
+    public void setDownpayment(BigDecimal downpayment) { this.downpayment = downpayment; }
+}
@@ -0,0 +1,87 @@
+package com.example.enrollment.entity;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One domain event written in the same transaction as the change it
+ * describes; processedAt stays null until its handler has run. Written and
+ * read by DomainEventOutbox with plain JDBC.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_pending", columnList = "processedAt, eventId")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long eventId;
+
+    @Column(nullable = false, length = 40)
+    private String eventType; // PAYMENT_POSTED, SUBJECTS_ENLISTED, SUBJECTS_DROPPED
+
+    private Long studentId;
+
+    @Column(length = 50)
+    private String studentNumber;
+
+    @Column(length = 64)
+    private String reference; // transaction id for payments
+
+    @Column(columnDefinition = "TEXT")
+    private String subjects; // one "courseId<TAB>courseCode<TAB>courseTitle" line per subject
+
+    @Column(length = 100)
+    private String performedBy;
+
+    @Column(nullable = false)
+    private Date occurredAt;
+
+    private Integer attempts = 0;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private Date processedAt;
+
+    // --- GETTERS AND SETTERS ---
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public String getStudentNumber() { return studentNumber; }
+    public void setStudentNumber(String studentNumber) { this.studentNumber = studentNumber; }
+
+    public String getReference() { return reference; }
+    public void setReference(String reference) { this.reference = reference; }
+
+    public String getSubjects() { return subjects; }
+    public void setSubjects(String subjects) { this.subjects = subjects; }
+
+    public String getPerformedBy() { return performedBy; }
+    public void setPerformedBy(String performedBy) { this.performedBy = performedBy; }
+
+    public Date getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(Date occurredAt) { this.occurredAt = occurredAt; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public Date getProcessedAt() { return processedAt; }
+    public void setProcessedAt(Date processedAt) { this.processedAt = processedAt; }
+}
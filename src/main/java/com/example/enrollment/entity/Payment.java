@@ -1,12 +1,19 @@
 package com.example.enrollment.entity;
 
+import com.example.enrollment.util.Money;
 import jakarta.persistence.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Date;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_date", columnList = "paymentDate")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payments_transaction", columnNames = "transactionId"),
+    @UniqueConstraint(name = "uk_payments_idempotency_key", columnNames = "idempotencyKey")
+})
 public class Payment {
 
     @Id
@@ -15,10 +22,13 @@ public class Payment {
 
     private String transactionId;
     private String referenceNumber; // Links payment to the student
-    private Double amount;
+    @Column(precision = 12, scale = 2)
+    private BigDecimal amount; // Exact pesos; arithmetic goes through the centavos accessors
     private String paymentMethod;
     private Date paymentDate;
     private String remarks;
+    @Column(length = 64)
+    private String idempotencyKey; // Client-supplied key of the post that created this row (walk-in only)
 
     // --- GETTERS AND SETTERS ---
     public Long getId() { return id; }
@@ -30,8 +40,14 @@ public class Payment {
     public String getReferenceNumber() { return referenceNumber; }
     public void setReferenceNumber(String referenceNumber) { this.referenceNumber = referenceNumber; }
 
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public long getAmountCentavos() { return Money.of(amount); }
+    public void setAmountCentavos(long centavos) { this.amount = Money.toDecimal(centavos); }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
 
     public String getPaymentMethod() { return paymentMethod; }
     public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
@@ -0,0 +1,87 @@
+package com.example.enrollment.entity;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Everything a printed receipt shows, frozen when the payment is posted
+ * so reprints match the original even after the student, the term or the
+ * wording changes. Written once by ReceiptSnapshotService, never updated.
+ */
+@Entity
+@Table(name = "receipt_snapshots", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_receipt_snapshots_transaction", columnNames = "transactionId")
+})
+public class ReceiptSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long receiptId;
+
+    @Column(nullable = false, length = 64)
+    private String transactionId;
+
+    @Column(length = 50)
+    private String studentNumber;
+
+    private String studentName; // "LAST, FIRST" as printed
+
+    private String program;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 300)
+    private String amountInWords;
+
+    private String paymentMethod;
+
+    @Column(length = 10)
+    private String paymentDate; // MM-dd-yyyy as printed
+
+    @Column(length = 50)
+    private String term;
+
+    private Date createdAt;
+
+    // --- GETTERS AND SETTERS ---
+    public Long getReceiptId() { return receiptId; }
+    public void setReceiptId(Long receiptId) { this.receiptId = receiptId; }
+
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+
+    public String getStudentNumber() { return studentNumber; }
+    public void setStudentNumber(String studentNumber) { this.studentNumber = studentNumber; }
+
+    public String getStudentName() { return studentName; }
+    public void setStudentName(String studentName) { this.studentName = studentName; }
+
+    public String getProgram() { return program; }
+    public void setProgram(String program) { this.program = program; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getAmountInWords() { return amountInWords; }
+    public void setAmountInWords(String amountInWords) { this.amountInWords = amountInWords; }
+
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public String getPaymentDate() { return paymentDate; }
+    public void setPaymentDate(String paymentDate) { this.paymentDate = paymentDate; }
+
+    public String getTerm() { return term; }
+    public void setTerm(String term) { this.term = term; }
+
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+}
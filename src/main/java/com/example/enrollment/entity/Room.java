@@ -2,12 +2,16 @@ package com.example.enrollment.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
+import com.example.enrollment.service.CatalogChangeListener;
+
 @Entity
+@EntityListeners(CatalogChangeListener.class)
 @Table(name = "rooms")
 public class Room {
     @Id
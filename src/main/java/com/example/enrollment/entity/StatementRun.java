@@ -0,0 +1,79 @@
+package com.example.enrollment.entity;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * One execution of the term-wide statement job; its rows are in
+ * {@link StudentStatement}. Written by StatementRunService.
+ */
+@Entity
+@Table(name = "statement_runs")
+public class StatementRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long runId;
+
+    @ManyToOne
+    @JoinColumn(name = "term_id", nullable = false)
+    private AcademicTerm term;
+
+    @Column(nullable = false)
+    private LocalDate cutoffDate;
+
+    @Column(length = 30)
+    private String status; // RUNNING, COMPLETED, COMPLETED_WITH_ERRORS, FAILED
+
+    private Integer students = 0;
+
+    private Integer failedChunks = 0;
+
+    private Long elapsedMs;
+
+    private Date startedAt;
+
+    private Date finishedAt;
+
+    @Column(length = 500)
+    private String error; // why a FAILED run stopped
+
+    // --- GETTERS AND SETTERS ---
+    public Long getRunId() { return runId; }
+    public void setRunId(Long runId) { this.runId = runId; }
+
+    public AcademicTerm getTerm() { return term; }
+    public void setTerm(AcademicTerm term) { this.term = term; }
+
+    public LocalDate getCutoffDate() { return cutoffDate; }
+    public void setCutoffDate(LocalDate cutoffDate) { this.cutoffDate = cutoffDate; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getStudents() { return students; }
+    public void setStudents(Integer students) { this.students = students; }
+
+    public Integer getFailedChunks() { return failedChunks; }
+    public void setFailedChunks(Integer failedChunks) { this.failedChunks = failedChunks; }
+
+    public Long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(Long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public Date getStartedAt() { return startedAt; }
+    public void setStartedAt(Date startedAt) { this.startedAt = startedAt; }
+
+    public Date getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Date finishedAt) { this.finishedAt = finishedAt; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -2,14 +2,24 @@ package com.example.enrollment.entity;
 
 import jakarta.persistence.Column; // Imported Column
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
+import com.example.enrollment.repository.StudentSummary;
+import com.example.enrollment.service.StudentIndexListener;
+
 @Entity
-@Table(name = "students")
-public class Student {
+@EntityListeners(StudentIndexListener.class)
+@Table(name = "students", indexes = {
+    // Support the dashboard's keyset pages and grouped status counts
+    @Index(name = "idx_students_last_name", columnList = "lastName, id"),
+    @Index(name = "idx_students_status", columnList = "applicantStatus, id")
+})
+public class Student implements StudentSummary {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
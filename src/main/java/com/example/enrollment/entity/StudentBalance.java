@@ -0,0 +1,47 @@
+package com.example.enrollment.entity;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Materialized per-student ledger totals, kept in step with
+ * student_enlistments and payments by StudentBalanceService.
+ */
+@Entity
+@Table(name = "student_balances")
+public class StudentBalance {
+
+    @Id
+    private Long studentId; // Same value as students.id
+
+    @Column(length = 50)
+    private String studentNumber;
+
+    private Integer totalUnits = 0;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal tuitionPaid = BigDecimal.ZERO;
+
+    private Date updatedAt;
+
+    // --- GETTERS AND SETTERS ---
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public String getStudentNumber() { return studentNumber; }
+    public void setStudentNumber(String studentNumber) { this.studentNumber = studentNumber; }
+
+    public Integer getTotalUnits() { return totalUnits; }
+    public void setTotalUnits(Integer totalUnits) { this.totalUnits = totalUnits; }
+
+    public BigDecimal getTuitionPaid() { return tuitionPaid; }
+    public void setTuitionPaid(BigDecimal tuitionPaid) { this.tuitionPaid = tuitionPaid; }
+
+    public Date getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
+}
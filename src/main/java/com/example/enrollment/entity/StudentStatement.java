@@ -0,0 +1,95 @@
+package com.example.enrollment.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * A student's assessment, balance and installment position as of a
+ * {@link StatementRun}'s cut-off date.
+ */
+@Entity
+@Table(name = "student_statements", indexes = {
+    @Index(name = "idx_student_statements_run_student", columnList = "run_id, student_id")
+})
+public class StudentStatement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "run_id", nullable = false)
+    private StatementRun run;
+
+    @Column(nullable = false)
+    private Long studentId;
+
+    @Column(length = 50)
+    private String studentNumber;
+
+    private Integer totalUnits;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal assessment;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal tuitionPaid; // Tuition payments made up to the cut-off
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal balance;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal amountDue; // Downpayment plus installments due by the cut-off
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal pastDue;
+
+    private Integer installmentsDue;
+
+    private Integer installmentsPaid;
+
+    // --- GETTERS AND SETTERS ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public StatementRun getRun() { return run; }
+    public void setRun(StatementRun run) { this.run = run; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public String getStudentNumber() { return studentNumber; }
+    public void setStudentNumber(String studentNumber) { this.studentNumber = studentNumber; }
+
+    public Integer getTotalUnits() { return totalUnits; }
+    public void setTotalUnits(Integer totalUnits) { this.totalUnits = totalUnits; }
+
+    public BigDecimal getAssessment() { return assessment; }
+    public void setAssessment(BigDecimal assessment) { this.assessment = assessment; }
+
+    public BigDecimal getTuitionPaid() { return tuitionPaid; }
+    public void setTuitionPaid(BigDecimal tuitionPaid) { this.tuitionPaid = tuitionPaid; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+
+    public BigDecimal getAmountDue() { return amountDue; }
+    public void setAmountDue(BigDecimal amountDue) { this.amountDue = amountDue; }
+
+    public BigDecimal getPastDue() { return pastDue; }
+    public void setPastDue(BigDecimal pastDue) { this.pastDue = pastDue; }
+
+    public Integer getInstallmentsDue() { return installmentsDue; }
+    public void setInstallmentsDue(Integer installmentsDue) { this.installmentsDue = installmentsDue; }
+
+    public Integer getInstallmentsPaid() { return installmentsPaid; }
+    public void setInstallmentsPaid(Integer installmentsPaid) { this.installmentsPaid = installmentsPaid; }
+}
@@ -4,7 +4,13 @@ import jakarta.persistence.*;
 import java.util.Date;
 
 @Entity
-@Table(name = "subject_logs")
+@Table(name = "subject_logs", indexes = {
+    // Keyset pages of the history screen: newest first, optionally filtered
+    @Index(name = "idx_subject_logs_time", columnList = "timestamp, id"),
+    @Index(name = "idx_subject_logs_student", columnList = "studentNumber, timestamp, id"),
+    @Index(name = "idx_subject_logs_course", columnList = "courseCode, timestamp, id"),
+    @Index(name = "idx_subject_logs_action", columnList = "action, timestamp, id")
+})
 public class SubjectLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,13 @@
+package com.example.enrollment.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.enrollment.entity.FeeInstallment;
+
+@Repository
+public interface FeeInstallmentRepository extends JpaRepository<FeeInstallment, Integer> {
+    List<FeeInstallment> findBySchedule_ScheduleIdOrderBySequenceNo(Integer scheduleId);
+}
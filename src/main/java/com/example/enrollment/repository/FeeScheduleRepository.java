@@ -0,0 +1,11 @@
+package com.example.enrollment.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.enrollment.entity.FeeSchedule;
+
+@Repository
+public interface FeeScheduleRepository extends JpaRepository<FeeSchedule, Integer> {
+    FeeSchedule findByTerm_TermId(Integer termId);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
@@ -17,9 +18,12 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     // ➤ NEW: Calculate Total Payments
     // COALESCE ensures that if no payments exist, it returns 0 instead of null
     @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.referenceNumber = :referenceNumber")
-    Double getTotalPaymentsByReferenceNumber(@Param("referenceNumber") String referenceNumber);
+    BigDecimal getTotalPaymentsByReferenceNumber(@Param("referenceNumber") String referenceNumber);
 
 	Payment findByTransactionId(String transactionId);
 
+    // Unique: at most one payment per idempotency key
+    Payment findByIdempotencyKey(String idempotencyKey);
+
     
 }
\ No newline at end of file
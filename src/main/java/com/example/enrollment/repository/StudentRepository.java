@@ -4,11 +4,17 @@ import com.example.enrollment.entity.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List; // Import List
+import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
 
     Student findByStudentNumber(String studentNumber);
+
+    // Projections for the hot read paths (only the columns in StudentSummary are selected)
+    StudentSummary findSummaryByStudentNumber(String studentNumber);
+
+    Optional<StudentSummary> findSummaryById(Long id);
     
     List<Student> findByLastNameIgnoreCase(String lastName);
 
@@ -0,0 +1,14 @@
+package com.example.enrollment.repository;
+
+/**
+ * Narrow view of a student for list, lookup and status screens.
+ * Spring Data selects only these columns instead of the full ~80-column row.
+ */
+public interface StudentSummary {
+    Long getId();
+    String getStudentNumber();
+    String getFirstName();
+    String getLastName();
+    String getProgram1();
+    String getApplicantStatus();
+}
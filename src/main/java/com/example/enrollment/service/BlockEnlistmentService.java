@@ -0,0 +1,238 @@
+package com.example.enrollment.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.enrollment.util.WeeklyTimetable;
+
+/**
+ * Block sectioning: enlists a whole cohort into the same set of sections.
+ *
+ * A student gets the full block or nothing. Students are processed in
+ * chunks, each chunk in its own transaction: the block sections' seat rows
+ * are locked, every student of the chunk is checked in memory against
+ * set-loaded state (status, duplicates, unit cap, schedule conflicts,
+ * remaining seats), and the accepted rows are written as JDBC batches
+ * (audit rows through {@link SubjectLogWriter} once the chunk commits).
+ * A student who fails a check is reported and skipped; the rest of the
+ * chunk and the remaining chunks still go through.
+ */
+@Service
+public class BlockEnlistmentService {
+
+    static final int CHUNK_SIZE = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogService catalogService;
+    private final SchedulingService schedulingService;
+    private final SeatReservationService seatReservationService;
+    private final StudentBalanceService studentBalanceService;
+    private final SubjectLogWriter subjectLogWriter;
+
+    public BlockEnlistmentService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  CatalogService catalogService,
+                                  SchedulingService schedulingService,
+                                  SeatReservationService seatReservationService,
+                                  StudentBalanceService studentBalanceService,
+                                  SubjectLogWriter subjectLogWriter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogService = catalogService;
+        this.schedulingService = schedulingService;
+        this.seatReservationService = seatReservationService;
+        this.studentBalanceService = studentBalanceService;
+        this.subjectLogWriter = subjectLogWriter;
+    }
+
+    public record Failure(String studentNumber, String reason) {}
+
+    /**
+     * Outcome of a block run: how many students were asked for, how many got
+     * the block, how many enlistment rows were written, and who was skipped.
+     */
+    public record Report(int requested, int enlistedStudents, int enlistments, List<Failure> failures) {}
+
+    private record BlockSection(int sectionId, CourseCatalog.CourseInfo course, WeeklyTimetable timetable) {}
+
+    private record Candidate(long id, String studentNumber, String status) {}
+
+    /**
+     * Enlists every listed student into every listed section.
+     *
+     * @throws IllegalArgumentException when the block itself is invalid
+     *         (unknown section, two sections of one course, or sections that
+     *         overlap each other)
+     */
+    public Report enlist(List<String> studentNumbers, List<Integer> sectionIds, String performedBy) {
+        List<BlockSection> block = resolveBlock(sectionIds);
+
+        Set<String> numbers = new LinkedHashSet<>();
+        for (String n : studentNumbers) {
+            if (n != null && !n.trim().isEmpty()) numbers.add(n.trim());
+        }
+        List<String> ordered = new ArrayList<>(numbers);
+
+        List<Failure> failures = new ArrayList<>();
+        int students = 0;
+        int rows = 0;
+        for (int from = 0; from < ordered.size(); from += CHUNK_SIZE) {
+            List<String> chunk = ordered.subList(from, Math.min(from + CHUNK_SIZE, ordered.size()));
+            List<Failure> chunkFailures = new ArrayList<>();
+            try {
+                int[] written = transactionTemplate.execute(status -> enlistChunk(chunk, block, performedBy, chunkFailures));
+                students += written[0];
+                rows += written[1];
+                failures.addAll(chunkFailures);
+            } catch (RuntimeException e) {
+                // The chunk rolled back as a whole; report its students and carry on with the next one
+                for (String number : chunk) {
+                    failures.add(new Failure(number, "Not processed: " + e.getLocalizedMessage()));
+                }
+            }
+        }
+
+        System.out.println("Block Enlistment: " + students + " of " + ordered.size() + " student(s) enlisted in " +
+            block.size() + " section(s), " + failures.size() + " skipped");
+        return new Report(ordered.size(), students, rows, failures);
+    }
+
+    private List<BlockSection> resolveBlock(List<Integer> sectionIds) {
+        CourseCatalog catalog = catalogService.current();
+        List<BlockSection> block = new ArrayList<>();
+        Set<Integer> courses = new LinkedHashSet<>();
+        WeeklyTimetable combined = new WeeklyTimetable();
+
+        for (Integer sectionId : new LinkedHashSet<>(sectionIds)) {
+            if (sectionId == null) continue;
+            CourseCatalog.CourseInfo course = catalogService.courseForSection(sectionId);
+            if (course == null) {
+                throw new IllegalArgumentException("Section " + sectionId + " not found.");
+            }
+            if (!courses.add(course.courseId())) {
+                throw new IllegalArgumentException("The block has more than one section of " + course.courseCode() + ".");
+            }
+            CourseCatalog.SectionInfo cached = catalog.section(sectionId);
+            WeeklyTimetable timetable = (cached != null) ? cached.timetable() : schedulingService.sectionTimetable(sectionId);
+            if (combined.overlaps(timetable)) {
+                throw new IllegalArgumentException("Section " + sectionId + " (" + course.courseCode() +
+                    ") overlaps another section of the block.");
+            }
+            combined.addAll(timetable);
+            block.add(new BlockSection(sectionId, course, timetable));
+        }
+        if (block.isEmpty()) {
+            throw new IllegalArgumentException("No sections given.");
+        }
+        return block;
+    }
+
+    // Returns { students enlisted, rows written }
+    private int[] enlistChunk(List<String> numbers, List<BlockSection> block, String performedBy, List<Failure> failures) {
+        // 1. Students of the chunk
+        Map<String, Candidate> byNumber = new HashMap<>();
+        namedJdbc.query(
+            "SELECT id, student_number, applicant_status FROM students WHERE student_number IN (:numbers)",
+            new MapSqlParameterSource("numbers", numbers), rs -> {
+                byNumber.put(rs.getString("student_number"),
+                    new Candidate(rs.getLong("id"), rs.getString("student_number"), rs.getString("applicant_status")));
+            });
+
+        List<Long> ids = new ArrayList<>();
+        for (Candidate c : byNumber.values()) ids.add(c.id());
+        Map<Long, StudentLoads.Load> loads = StudentLoads.load(namedJdbc, ids);
+
+        // 2. Seats, locked until this chunk commits
+        List<Integer> sectionIds = new ArrayList<>();
+        int blockUnits = 0;
+        WeeklyTimetable blockTimetable = new WeeklyTimetable();
+        for (BlockSection s : block) {
+            sectionIds.add(s.sectionId());
+            blockUnits += s.course().creditUnits();
+            blockTimetable.addAll(s.timetable());
+        }
+        Map<Integer, Integer> free = seatReservationService.lockFreeSeats(sectionIds);
+
+        // 3. Check each student in request order
+        List<Object[]> enlistments = new ArrayList<>();
+        List<SubjectLogWriter.Entry> logs = new ArrayList<>();
+        Map<Integer, Integer> seatsTaken = new LinkedHashMap<>();
+        Map<Long, Integer> unitDeltas = new LinkedHashMap<>();
+        Date now = new Date();
+        int students = 0;
+
+        for (String number : numbers) {
+            Candidate student = byNumber.get(number);
+            String reason = check(student, loads, block, blockUnits, blockTimetable, free);
+            if (reason != null) {
+                failures.add(new Failure(number, reason));
+                continue;
+            }
+
+            for (BlockSection s : block) {
+                free.merge(s.sectionId(), -1, Integer::sum);
+                seatsTaken.merge(s.sectionId(), 1, Integer::sum);
+                enlistments.add(new Object[] { student.id(), s.course().courseId(), s.sectionId() });
+                logs.add(new SubjectLogWriter.Entry(student.studentNumber(), "ADDED", s.course().courseCode(),
+                    s.course().courseTitle(), now, performedBy));
+            }
+            unitDeltas.put(student.id(), blockUnits);
+            students++;
+        }
+
+        // 4. Write the chunk as batches
+        if (!enlistments.isEmpty()) {
+            seatReservationService.take(seatsTaken);
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO student_enlistments (student_id, course_id, section_id) VALUES (?, ?, ?)", enlistments);
+            subjectLogWriter.appendAll(logs); // written after this chunk commits
+            studentBalanceService.applyUnits(unitDeltas);
+        }
+        return new int[] { students, enlistments.size() };
+    }
+
+    private static String check(Candidate student, Map<Long, StudentLoads.Load> loads, List<BlockSection> block,
+                                int blockUnits, WeeklyTimetable blockTimetable, Map<Integer, Integer> free) {
+        if (student == null) return "Student not found.";
+        if ("ENROLLED".equalsIgnoreCase(student.status())) return "Student already enrolled.";
+
+        StudentLoads.Load load = loads.get(student.id());
+        for (BlockSection s : block) {
+            if (load.courses.contains(s.course().courseId())) {
+                return "Already enlisted in " + s.course().courseCode() + ".";
+            }
+        }
+        if (load.units + blockUnits > WaitlistService.MAX_UNITS) {
+            return "Maximum limit of " + WaitlistService.MAX_UNITS + " units reached. Current: " + load.units + " units.";
+        }
+        if (load.timetable.overlaps(blockTimetable)) {
+            for (BlockSection s : block) {
+                if (load.timetable.overlaps(s.timetable())) {
+                    return "Schedule conflict with " + s.course().courseCode() + ".";
+                }
+            }
+        }
+        for (BlockSection s : block) {
+            if (free.getOrDefault(s.sectionId(), 0) <= 0) {
+                return "Section " + s.sectionId() + " (" + s.course().courseCode() + ") is full.";
+            }
+        }
+        return null;
+    }
+}
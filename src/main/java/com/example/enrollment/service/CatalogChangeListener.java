@@ -0,0 +1,50 @@
+package com.example.enrollment.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener on the catalog entities (terms, courses, sections,
+ * schedules, rooms, faculty). Any change schedules one catalog refresh
+ * after the surrounding transaction commits, however many rows it touched.
+ */
+@Component
+public class CatalogChangeListener {
+
+    private static final Object REFRESH_KEY = CatalogChangeListener.class.getName() + ".refresh";
+
+    private final ObjectProvider<CatalogService> catalogService;
+
+    public CatalogChangeListener(ObjectProvider<CatalogService> catalogService) {
+        this.catalogService = catalogService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogService.ifAvailable(CatalogService::refresh);
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(REFRESH_KEY)) {
+            return; // already scheduled for this transaction
+        }
+        TransactionSynchronizationManager.bindResource(REFRESH_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REFRESH_KEY);
+                if (status == STATUS_COMMITTED) {
+                    catalogService.ifAvailable(CatalogService::refresh);
+                }
+            }
+        });
+    }
+}
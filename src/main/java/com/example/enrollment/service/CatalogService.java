@@ -0,0 +1,182 @@
+package com.example.enrollment.service;
+
+import java.sql.Time;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.enrollment.util.WeeklyTimetable;
+
+/**
+ * Holds the current {@link CourseCatalog} and rebuilds it when the catalog
+ * tables change. Readers call {@link #current()} once per request and work
+ * against that immutable snapshot; a refresh builds a new snapshot off to
+ * the side and swaps the reference.
+ */
+@Service
+public class CatalogService {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("hh:mm a", Locale.ENGLISH);
+    private static final String[] DAY_ABBREVIATIONS = { "", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    private volatile CourseCatalog current = CourseCatalog.EMPTY;
+
+    public CatalogService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public CourseCatalog current() {
+        return current;
+    }
+
+    /**
+     * Course of a section: from the snapshot when the section belongs to the
+     * cached term, otherwise a single lookup (e.g. sections of a closed term).
+     */
+    public CourseCatalog.CourseInfo courseForSection(Integer sectionId) {
+        if (sectionId == null) return null;
+        CourseCatalog catalog = current;
+        CourseCatalog.SectionInfo section = catalog.section(sectionId);
+        if (section != null) {
+            CourseCatalog.CourseInfo course = catalog.course(section.courseId());
+            if (course != null) return course;
+        }
+        List<CourseCatalog.CourseInfo> rows = jdbcTemplate.query(
+            "SELECT c.course_id, c.course_code, c.course_title, COALESCE(c.credit_units, 0) AS credit_units, " +
+            "COALESCE(c.active_status, 1) AS active_status " +
+            "FROM class_sections cs JOIN courses c ON cs.course_id = c.course_id WHERE cs.section_id = ?",
+            (rs, i) -> new CourseCatalog.CourseInfo(rs.getInt("course_id"), rs.getString("course_code"),
+                rs.getString("course_title"), rs.getInt("credit_units"), rs.getBoolean("active_status")),
+            sectionId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Rebuilds the snapshot from the database and swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        // 1. Terms in scope: the active ones (everything if none is marked active)
+        List<Integer> termIds = jdbcTemplate.queryForList(
+            "SELECT term_id FROM academic_terms WHERE UPPER(status) = 'ACTIVE'", Integer.class);
+        String termFilter = termIds.isEmpty() ? "" : " WHERE cs.term_id IN (:terms)";
+        MapSqlParameterSource params = new MapSqlParameterSource("terms", termIds);
+
+        // 2. Courses, rooms and faculty (small reference tables)
+        List<CourseCatalog.CourseInfo> courseList = jdbcTemplate.query(
+            "SELECT course_id, course_code, course_title, COALESCE(credit_units, 0) AS credit_units, " +
+            "COALESCE(active_status, 1) AS active_status FROM courses",
+            (rs, i) -> new CourseCatalog.CourseInfo(rs.getInt("course_id"), rs.getString("course_code"),
+                rs.getString("course_title"), rs.getInt("credit_units"), rs.getBoolean("active_status")));
+
+        List<CourseCatalog.RoomInfo> roomList = jdbcTemplate.query(
+            "SELECT room_id, room_code, building_name FROM rooms",
+            (rs, i) -> new CourseCatalog.RoomInfo(rs.getInt("room_id"), rs.getString("room_code"), rs.getString("building_name")));
+
+        List<CourseCatalog.FacultyInfo> facultyList = jdbcTemplate.query(
+            "SELECT faculty_id, first_name, last_name FROM faculty",
+            (rs, i) -> new CourseCatalog.FacultyInfo(rs.getInt("faculty_id"), rs.getString("first_name"), rs.getString("last_name")));
+
+        // 3. Meetings of the term's sections, grouped per section
+        Map<Integer, List<Object[]>> meetings = new HashMap<>();
+        namedJdbc.query(
+            "SELECT sch.section_id, sch.day_of_week, sch.start_time, sch.end_time, sch.room_id, sch.faculty_id " +
+            "FROM class_schedules sch JOIN class_sections cs ON sch.section_id = cs.section_id" + termFilter +
+            " ORDER BY sch.section_id, sch.day_of_week, sch.start_time",
+            params, rs -> {
+                Time start = rs.getTime("start_time");
+                Time end = rs.getTime("end_time");
+                meetings.computeIfAbsent(rs.getInt("section_id"), k -> new ArrayList<>()).add(new Object[] {
+                    rs.getObject("day_of_week"),
+                    (start != null) ? start.toLocalTime() : null,
+                    (end != null) ? end.toLocalTime() : null,
+                    rs.getObject("room_id"),
+                    rs.getObject("faculty_id")
+                });
+            });
+
+        // 4. Sections of the term
+        List<CourseCatalog.SectionInfo> sectionList = namedJdbc.query(
+            "SELECT cs.section_id, cs.course_id, cs.section_code, COALESCE(cs.max_capacity, " +
+            SeatReservationService.DEFAULT_CAPACITY + ") AS max_capacity FROM class_sections cs" + termFilter,
+            params, (rs, i) -> buildSection(rs.getInt("section_id"), rs.getInt("course_id"),
+                rs.getString("section_code"), rs.getInt("max_capacity"),
+                meetings.getOrDefault(rs.getInt("section_id"), List.of())));
+
+        // 5. Dense, id-indexed arrays
+        CourseCatalog.CourseInfo[] courses = new CourseCatalog.CourseInfo[maxId(courseList, CourseCatalog.CourseInfo::courseId) + 1];
+        for (CourseCatalog.CourseInfo c : courseList) courses[c.courseId()] = c;
+
+        CourseCatalog.SectionInfo[] sections = new CourseCatalog.SectionInfo[maxId(sectionList, CourseCatalog.SectionInfo::sectionId) + 1];
+        for (CourseCatalog.SectionInfo s : sectionList) sections[s.sectionId()] = s;
+
+        CourseCatalog.RoomInfo[] rooms = new CourseCatalog.RoomInfo[maxId(roomList, CourseCatalog.RoomInfo::roomId) + 1];
+        for (CourseCatalog.RoomInfo r : roomList) rooms[r.roomId()] = r;
+
+        CourseCatalog.FacultyInfo[] faculty = new CourseCatalog.FacultyInfo[maxId(facultyList, CourseCatalog.FacultyInfo::facultyId) + 1];
+        for (CourseCatalog.FacultyInfo f : facultyList) faculty[f.facultyId()] = f;
+
+        List<CourseCatalog.SectionInfo> offered = new ArrayList<>();
+        for (CourseCatalog.SectionInfo s : sectionList) {
+            CourseCatalog.CourseInfo course = courses[s.courseId()];
+            if (course != null && course.active()) offered.add(s);
+        }
+        offered.sort(Comparator
+            .comparing((CourseCatalog.SectionInfo s) -> String.valueOf(courses[s.courseId()].courseCode()))
+            .thenComparing(s -> String.valueOf(s.sectionCode())));
+
+        current = new CourseCatalog(termIds, courses, sections, rooms, faculty, offered);
+        System.out.println("Catalog: loaded " + courseList.size() + " courses and " + sectionList.size() +
+            " sections for terms " + termIds);
+    }
+
+    private static CourseCatalog.SectionInfo buildSection(int sectionId, int courseId, String sectionCode,
+                                                          int maxCapacity, List<Object[]> rows) {
+        WeeklyTimetable timetable = new WeeklyTimetable();
+        StringBuilder text = new StringBuilder();
+        int[] roomIds = new int[rows.size()];
+        int[] facultyIds = new int[rows.size()];
+
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] m = rows.get(i);
+            Integer day = (m[0] != null) ? ((Number) m[0]).intValue() : null;
+            LocalTime start = (LocalTime) m[1];
+            LocalTime end = (LocalTime) m[2];
+            roomIds[i] = (m[3] != null) ? ((Number) m[3]).intValue() : 0;
+            facultyIds[i] = (m[4] != null) ? ((Number) m[4]).intValue() : 0;
+
+            timetable.mark(day, start, end);
+            if (start == null || end == null) continue; // CONCAT with NULL was skipped by GROUP_CONCAT
+            if (text.length() > 0) text.append(", ");
+            text.append((day != null && day >= 1 && day <= 7) ? DAY_ABBREVIATIONS[day] : "")
+                .append(' ').append(TIME_FORMAT.format(start))
+                .append('-').append(TIME_FORMAT.format(end));
+        }
+
+        return new CourseCatalog.SectionInfo(sectionId, courseId, sectionCode, maxCapacity,
+            (text.length() > 0) ? text.toString() : null, timetable, roomIds, facultyIds);
+    }
+
+    private static <T> int maxId(List<T> items, ToIntFunction<T> id) {
+        int max = 0;
+        for (T item : items) max = Math.max(max, id.applyAsInt(item));
+        return max;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.enrollment.service;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.example.enrollment.util.WeeklyTimetable;
+
+/**
+ * Immutable, term-scoped snapshot of courses, sections, schedules, rooms and
+ * faculty. Built by {@link CatalogService} and replaced as a whole, so
+ * readers never see a half-updated catalog.
+ *
+ * Lookups are by primitive id into dense arrays (ids are auto-increment
+ * keys, so the arrays stay compact).
+ */
+public final class CourseCatalog {
+
+    public record CourseInfo(int courseId, String courseCode, String courseTitle, int creditUnits, boolean active) {}
+
+    /**
+     * A section of the catalog's term. scheduleText uses the same
+     * "Mon 08:00 AM-09:30 AM, ..." format as the old GROUP_CONCAT, or null when unscheduled.
+     * The timetable is shared by every reader and must be treated as read-only.
+     */
+    public record SectionInfo(int sectionId, int courseId, String sectionCode, int maxCapacity,
+                              String scheduleText, WeeklyTimetable timetable,
+                              int[] roomIds, int[] facultyIds) {}
+
+    public record RoomInfo(int roomId, String roomCode, String buildingName) {}
+
+    public record FacultyInfo(int facultyId, String firstName, String lastName) {}
+
+    static final CourseCatalog EMPTY = new CourseCatalog(List.of(), new CourseInfo[0], new SectionInfo[0],
+        new RoomInfo[0], new FacultyInfo[0], List.of());
+
+    private final List<Integer> termIds;
+    private final CourseInfo[] courses;
+    private final SectionInfo[] sections;
+    private final RoomInfo[] rooms;
+    private final FacultyInfo[] faculty;
+    private final List<SectionInfo> offeredSections;
+
+    CourseCatalog(List<Integer> termIds, CourseInfo[] courses, SectionInfo[] sections,
+                  RoomInfo[] rooms, FacultyInfo[] faculty, List<SectionInfo> offeredSections) {
+        this.termIds = List.copyOf(termIds);
+        this.courses = courses;
+        this.sections = sections;
+        this.rooms = rooms;
+        this.faculty = faculty;
+        this.offeredSections = Collections.unmodifiableList(offeredSections);
+    }
+
+    /** Terms this snapshot covers (the active ones when it was built). */
+    public List<Integer> termIds() { return termIds; }
+
+    public CourseInfo course(int courseId) {
+        return (courseId >= 0 && courseId < courses.length) ? courses[courseId] : null;
+    }
+
+    public SectionInfo section(int sectionId) {
+        return (sectionId >= 0 && sectionId < sections.length) ? sections[sectionId] : null;
+    }
+
+    public RoomInfo room(int roomId) {
+        return (roomId >= 0 && roomId < rooms.length) ? rooms[roomId] : null;
+    }
+
+    public FacultyInfo faculty(int facultyId) {
+        return (facultyId >= 0 && facultyId < faculty.length) ? faculty[facultyId] : null;
+    }
+
+    /** Sections of active courses in this term, ordered by course code then section code. */
+    public List<SectionInfo> offeredSections() { return offeredSections; }
+}
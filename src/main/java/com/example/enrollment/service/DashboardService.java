@@ -0,0 +1,219 @@
+package com.example.enrollment.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Read side of the admin dashboard.
+ * Counts come from grouped aggregates and the student list is served in
+ * keyset pages, so a page view never loads the whole students table.
+ */
+@Service
+public class DashboardService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String ROW_COLUMNS =
+        "id, student_number AS studentNumber, last_name AS lastName, first_name AS firstName, " +
+        "program1, applicant_status AS applicantStatus";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StudentSearchIndex searchIndex;
+
+    public DashboardService(JdbcTemplate jdbcTemplate, StudentSearchIndex searchIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Columns the dashboard may be sorted by. The id is always appended as a
+     * tie-breaker so the keyset (sortValue, id) is unique.
+     */
+    public enum SortKey {
+        ID(null),
+        NUMBER("student_number"),
+        NAME("last_name"),
+        STATUS("applicant_status");
+
+        private final String column;
+
+        SortKey(String column) {
+            this.column = column;
+        }
+
+        public String getColumn() { return column; }
+
+        public static SortKey from(String value) {
+            if (value == null) return ID;
+            for (SortKey key : values()) {
+                if (key.name().equalsIgnoreCase(value)) return key;
+            }
+            return ID;
+        }
+    }
+
+    /**
+     * One page of dashboard rows plus the opaque cursor for the next page
+     * (null when there is no next page).
+     */
+    public record Page(List<Map<String, Object>> rows, String nextCursor) {
+        public boolean hasNext() { return nextCursor != null; }
+    }
+
+    /**
+     * Number of students per applicant status, computed by a single GROUP BY.
+     * Students without a status are counted under an empty key.
+     */
+    public Map<String, Long> countByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT UPPER(COALESCE(applicant_status, '')) AS status, COUNT(*) AS total " +
+            "FROM students GROUP BY UPPER(COALESCE(applicant_status, ''))",
+            rs -> {
+                counts.merge(rs.getString("status"), rs.getLong("total"), Long::sum);
+            });
+        return counts;
+    }
+
+    /**
+     * One page of ranked keyword matches from the in-memory search index.
+     * The cursor here is simply the offset of the next page.
+     */
+    public Page searchPage(String keyword, String cursor, int size) {
+        int limit = (size <= 0) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        int offset = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                offset = Math.max(0, Integer.parseInt(cursor));
+            } catch (NumberFormatException e) {
+                offset = 0;
+            }
+        }
+
+        StudentSearchIndex.Result result = searchIndex.search(keyword, offset, limit);
+        List<Map<String, Object>> rows = new ArrayList<>(result.hits().size());
+        for (StudentSearchIndex.Entry entry : result.hits()) {
+            rows.add(entry.toRow());
+        }
+
+        int next = offset + rows.size();
+        return new Page(rows, (next < result.total()) ? String.valueOf(next) : null);
+    }
+
+    /**
+     * Loads one keyset page of students. Keyword searches go through
+     * {@link #searchPage} instead.
+     *
+     * @param sort    column to sort by
+     * @param desc    sort direction
+     * @param cursor  cursor returned with the previous page, or null for the first page
+     * @param size    page size, clamped to {@link #MAX_PAGE_SIZE}
+     */
+    public Page findPage(SortKey sort, boolean desc, String cursor, int size) {
+        Long afterId = null;
+        String afterKey = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = decoded.indexOf(':');
+                afterId = Long.valueOf(decoded.substring(0, sep));
+                String rest = decoded.substring(sep + 1);
+                afterKey = rest.isEmpty() ? null : rest.substring(1);
+            } catch (RuntimeException e) {
+                // Tampered or stale cursor: start from the first page
+                afterId = null;
+                afterKey = null;
+            }
+        }
+
+        int limit = (size <= 0) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        String dir = desc ? "DESC" : "ASC";
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(ROW_COLUMNS).append(" FROM students WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+
+        if (afterId != null) {
+            appendKeysetPredicate(sql, args, sort, desc, afterKey, afterId);
+        }
+
+        sql.append(" ORDER BY ");
+        if (sort.getColumn() != null) {
+            sql.append(sort.getColumn()).append(' ').append(dir).append(", ");
+        }
+        sql.append("id ").append(dir).append(" LIMIT ?");
+        args.add(limit + 1);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql.toString(), args.toArray());
+
+        if (rows.size() <= limit) {
+            return new Page(rows, null);
+        }
+
+        rows = rows.subList(0, limit);
+        Map<String, Object> last = rows.get(rows.size() - 1);
+        Object value = (sort.getColumn() != null) ? last.get(columnAlias(sort)) : null;
+
+        // "<id>:" marks a NULL sort value, "<id>:=<value>" carries the value itself
+        String raw = last.get("id") + ":" + ((value != null) ? "=" + value : "");
+        String nextCursor = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        return new Page(rows, nextCursor);
+    }
+
+    /**
+     * Appends "rows strictly after (afterKey, afterId)" for the given order.
+     * MySQL sorts NULLs first ascending and last descending, and the
+     * predicate mirrors that so the sort column's index stays usable.
+     */
+    private void appendKeysetPredicate(StringBuilder sql, List<Object> args, SortKey sort, boolean desc,
+                                       String afterKey, Long afterId) {
+        String cmp = desc ? "<" : ">";
+        String col = sort.getColumn();
+
+        if (col == null) {
+            sql.append(" AND id ").append(cmp).append(" ?");
+            args.add(afterId);
+            return;
+        }
+
+        if (afterKey == null) {
+            if (desc) {
+                // NULLs are the tail of a DESC ordering
+                sql.append(" AND (").append(col).append(" IS NULL AND id < ?)");
+                args.add(afterId);
+            } else {
+                // NULLs are the head of an ASC ordering
+                sql.append(" AND ((").append(col).append(" IS NULL AND id > ?) OR ").append(col).append(" IS NOT NULL)");
+                args.add(afterId);
+            }
+            return;
+        }
+
+        sql.append(" AND (").append(col).append(' ').append(cmp).append(" ? OR (")
+           .append(col).append(" = ? AND id ").append(cmp).append(" ?)");
+        args.add(afterKey);
+        args.add(afterKey);
+        args.add(afterId);
+        if (desc) {
+            sql.append(" OR ").append(col).append(" IS NULL");
+        }
+        sql.append(')');
+    }
+
+    private String columnAlias(SortKey sort) {
+        return switch (sort) {
+            case NUMBER -> "studentNumber";
+            case NAME -> "lastName";
+            case STATUS -> "applicantStatus";
+            default -> "id";
+        };
+    }
+}
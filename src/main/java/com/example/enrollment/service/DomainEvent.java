@@ -0,0 +1,59 @@
+package com.example.enrollment.service;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Something that happened to a student, published through
+ * {@link DomainEventOutbox} in the transaction that made it happen and
+ * handled by {@link DomainEventHandlers} after that transaction commits.
+ */
+public sealed interface DomainEvent {
+
+    String type();
+
+    Date occurredAt();
+
+    /**
+     * A payment was recorded and the ledger moved; the applicant status
+     * follows from the new total.
+     */
+    record PaymentPosted(long studentId, String studentNumber, String transactionId, Date occurredAt)
+            implements DomainEvent {
+        public static final String TYPE = "PAYMENT_POSTED";
+
+        public String type() { return TYPE; }
+    }
+
+    /**
+     * One subject of an enlist or drop, as written to the audit log.
+     */
+    record Subject(int courseId, String courseCode, String courseTitle) {}
+
+    /**
+     * Subjects were enlisted in one request; their audit rows are written
+     * together.
+     */
+    record SubjectsEnlisted(String studentNumber, List<Subject> subjects, String performedBy, Date occurredAt)
+            implements DomainEvent {
+        public static final String TYPE = "SUBJECTS_ENLISTED";
+
+        public String type() { return TYPE; }
+    }
+
+    /**
+     * Subjects were dropped in one request and their seats released; the
+     * audit rows are written together and the courses' waitlists get a
+     * single fill pass.
+     */
+    record SubjectsDropped(String studentNumber, List<Subject> subjects, String performedBy, Date occurredAt)
+            implements DomainEvent {
+        public static final String TYPE = "SUBJECTS_DROPPED";
+
+        public String type() { return TYPE; }
+
+        public List<Integer> courseIds() {
+            return subjects.stream().map(Subject::courseId).distinct().toList();
+        }
+    }
+}
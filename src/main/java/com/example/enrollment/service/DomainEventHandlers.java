@@ -0,0 +1,76 @@
+package com.example.enrollment.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.enrollment.entity.Student;
+import com.example.enrollment.repository.StudentRepository;
+
+/**
+ * The side effects of each {@link DomainEvent}. {@link DomainEventOutbox}
+ * calls these in the transaction that marks the event processed, so a
+ * handler's writes and the processed flag commit or roll back together
+ * and a redelivered event is never applied twice.
+ */
+@Component
+public class DomainEventHandlers {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StudentRepository studentRepository;
+    private final StudentBalanceService studentBalanceService;
+    private final FinancialService financialService;
+    private final WaitlistService waitlistService;
+
+    public DomainEventHandlers(JdbcTemplate jdbcTemplate,
+                               StudentRepository studentRepository,
+                               StudentBalanceService studentBalanceService,
+                               FinancialService financialService,
+                               WaitlistService waitlistService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.studentRepository = studentRepository;
+        this.studentBalanceService = studentBalanceService;
+        this.financialService = financialService;
+        this.waitlistService = waitlistService;
+    }
+
+    void handle(DomainEvent event) {
+        switch (event) {
+            case DomainEvent.PaymentPosted e -> updateApplicantStatus(e.studentId());
+            case DomainEvent.SubjectsEnlisted e ->
+                audit(e.studentNumber(), "ADDED", e.subjects(), e.performedBy(), e.occurredAt());
+            case DomainEvent.SubjectsDropped e -> {
+                audit(e.studentNumber(), "REMOVED", e.subjects(), e.performedBy(), e.occurredAt());
+                waitlistService.fill(e.courseIds());
+            }
+        }
+    }
+
+    // ENROLLED once the ledger covers the downpayment, PENDING until then
+    private void updateApplicantStatus(long studentId) {
+        Student student = studentRepository.findById(studentId).orElse(null);
+        if (student == null) return; // removed since the payment
+
+        long paid = studentBalanceService.find(studentId).tuitionPaid();
+        String status = (paid >= financialService.currentPlan().downpayment()) ? "ENROLLED" : "PENDING";
+        if (!status.equalsIgnoreCase(student.getApplicantStatus())) {
+            student.setApplicantStatus(status);
+            studentRepository.save(student); // the search index follows through StudentIndexListener
+        }
+    }
+
+    // One batch for the whole request, committed with the event's processed flag
+    private void audit(String studentNumber, String action, List<DomainEvent.Subject> subjects,
+                       String performedBy, Date occurredAt) {
+        Timestamp at = new Timestamp(occurredAt.getTime());
+        List<Object[]> rows = new ArrayList<>(subjects.size());
+        for (DomainEvent.Subject subject : subjects) {
+            rows.add(new Object[] { studentNumber, action, subject.courseCode(), subject.courseTitle(), at, performedBy });
+        }
+        jdbcTemplate.batchUpdate(SubjectLogWriter.INSERT_SQL, rows);
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.enrollment.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Transactional outbox for {@link DomainEvent}s.
+ *
+ * Publishing inserts outbox_events rows in the caller's transaction, so an
+ * event exists exactly when the change it describes committed. Once the
+ * transaction commits the events are handed to a virtual thread (a
+ * semaphore caps how many run at once) that applies
+ * {@link DomainEventHandlers} to each in its own transaction. That
+ * transaction starts by flagging the row processed with a conditional
+ * UPDATE, so the row lock serializes two deliveries of one event and the
+ * loser finds nothing left to do.
+ *
+ * Delivery is at-least-once: events whose dispatch never ran (a crash or
+ * restart between commit and handler) or whose handler failed are picked
+ * up again by a replay pass at startup and on a fixed delay, up to
+ * {@link #MAX_ATTEMPTS} times.
+ */
+@Service
+public class DomainEventOutbox {
+
+    static final int MAX_ATTEMPTS = 10;
+    static final int REPLAY_BATCH = 500;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO outbox_events (event_type, student_id, student_number, subjects, reference, performed_by, " +
+        "occurred_at, attempts) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final Object PENDING_KEY = DomainEventOutbox.class.getName() + ".pending";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DomainEventHandlers handlers;
+    private final Semaphore inFlight;
+    private final long replayGraceMs;
+    private final long retentionDays;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong handled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public DomainEventOutbox(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             DomainEventHandlers handlers,
+                             @Value("${enrollment.events.parallelism:4}") int parallelism,
+                             @Value("${enrollment.events.replay-grace-ms:60000}") long replayGraceMs,
+                             @Value("${enrollment.events.retention-days:7}") long retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.handlers = handlers;
+        this.inFlight = new Semaphore(Math.max(1, parallelism));
+        this.replayGraceMs = replayGraceMs;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Outbox backlog and counters since startup.
+     */
+    public record Stats(long pending, long stuck, long published, long handled, long replayed, long failures) {}
+
+    // An event together with its outbox row
+    private record Stored(long eventId, DomainEvent event) {}
+
+    // --- PUBLISH ---
+
+    public void publish(DomainEvent event) {
+        publishAll(List.of(event));
+    }
+
+    /**
+     * Writes the events in the current transaction and dispatches them once
+     * it commits (immediately when there is no transaction).
+     */
+    public void publishAll(List<? extends DomainEvent> events) {
+        if (events.isEmpty()) return;
+        List<Stored> stored = insert(events);
+        published.addAndGet(stored.size());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(stored);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Stored> pending = (List<Stored>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            List<Stored> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                    if (status == STATUS_COMMITTED) {
+                        dispatch(buffer);
+                    }
+                }
+            });
+            pending = buffer;
+        }
+        pending.addAll(stored);
+    }
+
+    private List<Stored> insert(List<? extends DomainEvent> events) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, events.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return events.size();
+                }
+            }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        List<Stored> stored = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            long eventId = ((Number) generated.get(i).values().iterator().next()).longValue();
+            stored.add(new Stored(eventId, events.get(i)));
+        }
+        return stored;
+    }
+
+    private static void bind(PreparedStatement ps, DomainEvent event) throws SQLException {
+        ps.setString(1, event.type());
+        ps.setNull(2, Types.BIGINT);
+        ps.setNull(4, Types.VARCHAR);
+        ps.setNull(5, Types.VARCHAR);
+        ps.setNull(6, Types.VARCHAR);
+        switch (event) {
+            case DomainEvent.PaymentPosted e -> {
+                ps.setLong(2, e.studentId());
+                ps.setString(3, e.studentNumber());
+                ps.setString(5, e.transactionId());
+            }
+            case DomainEvent.SubjectsEnlisted e -> bindSubjects(ps, e.studentNumber(), e.subjects(), e.performedBy());
+            case DomainEvent.SubjectsDropped e -> bindSubjects(ps, e.studentNumber(), e.subjects(), e.performedBy());
+        }
+        ps.setTimestamp(7, new Timestamp(event.occurredAt().getTime()));
+    }
+
+    private static void bindSubjects(PreparedStatement ps, String studentNumber, List<DomainEvent.Subject> subjects,
+                                     String performedBy) throws SQLException {
+        ps.setString(3, studentNumber);
+        ps.setString(4, encodeSubjects(subjects));
+        ps.setString(6, performedBy);
+    }
+
+    // One "courseId<TAB>courseCode<TAB>courseTitle" line per subject
+    static String encodeSubjects(List<DomainEvent.Subject> subjects) {
+        StringBuilder encoded = new StringBuilder();
+        for (DomainEvent.Subject subject : subjects) {
+            if (!encoded.isEmpty()) encoded.append('\n');
+            encoded.append(subject.courseId()).append('\t')
+                .append(plain(subject.courseCode())).append('\t')
+                .append(plain(subject.courseTitle()));
+        }
+        return encoded.toString();
+    }
+
+    static List<DomainEvent.Subject> decodeSubjects(String encoded) {
+        List<DomainEvent.Subject> subjects = new ArrayList<>();
+        if (encoded == null || encoded.isEmpty()) return subjects;
+        for (String line : encoded.split("\n")) {
+            String[] fields = line.split("\t", -1);
+            subjects.add(new DomainEvent.Subject(Integer.parseInt(fields[0]),
+                fields[1].isEmpty() ? null : fields[1], fields[2].isEmpty() ? null : fields[2]));
+        }
+        return subjects;
+    }
+
+    // Tabs and line breaks would split a field; a catalog title has no use for them
+    private static String plain(String value) {
+        return (value == null) ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    // --- DISPATCH ---
+
+    // Events of one commit run in order on one virtual thread
+    private void dispatch(List<Stored> events) {
+        try {
+            executor.execute(() -> {
+                inFlight.acquireUninterruptibly();
+                try {
+                    for (Stored stored : events) process(stored);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            // Shutting down: the rows are committed, the next startup replays them
+            System.out.println("Domain Events: " + events.size() + " event(s) left for replay: " + e.getMessage());
+        }
+    }
+
+    private boolean process(Stored stored) {
+        try {
+            Boolean done = transactionTemplate.execute(status -> {
+                int claimed = jdbcTemplate.update(
+                    "UPDATE outbox_events SET processed_at = NOW() WHERE event_id = ? AND processed_at IS NULL",
+                    stored.eventId());
+                if (claimed == 0) return false; // another delivery got here first
+                handlers.handle(stored.event());
+                return true;
+            });
+            if (Boolean.TRUE.equals(done)) handled.incrementAndGet();
+            return true;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            String message = String.valueOf(e.getMessage());
+            jdbcTemplate.update("UPDATE outbox_events SET attempts = attempts + 1, last_error = ? WHERE event_id = ?",
+                message.substring(0, Math.min(message.length(), 500)), stored.eventId());
+            System.out.println("Domain Events: " + stored.event().type() + " #" + stored.eventId() + " failed: " + message);
+            return false;
+        }
+    }
+
+    // --- REPLAY ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        // Whatever was committed but never handled before the last shutdown
+        executor.execute(() -> replay(0));
+    }
+
+    @Scheduled(initialDelayString = "${enrollment.events.replay-interval-ms:30000}",
+               fixedDelayString = "${enrollment.events.replay-interval-ms:30000}")
+    public void scheduledReplay() {
+        replay(replayGraceMs);
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE processed_at < ? LIMIT 5000",
+            new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays)));
+    }
+
+    /**
+     * Runs every unprocessed event older than the grace period on the
+     * calling thread. The grace period keeps replay away from events whose
+     * after-commit dispatch is still on its way.
+     *
+     * @return number of events handled
+     */
+    public int replay(long graceMs) {
+        Timestamp before = new Timestamp(System.currentTimeMillis() - graceMs);
+        long afterId = 0;
+        int count = 0;
+        while (true) {
+            List<Stored> batch = jdbcTemplate.query(
+                "SELECT event_id, event_type, student_id, student_number, subjects, reference, performed_by, " +
+                "occurred_at FROM outbox_events " +
+                "WHERE processed_at IS NULL AND event_id > ? AND attempts < ? AND occurred_at <= ? " +
+                "ORDER BY event_id LIMIT ?",
+                (rs, i) -> new Stored(rs.getLong("event_id"), toEvent(rs.getString("event_type"), rs.getLong("student_id"),
+                    rs.getString("student_number"), rs.getString("subjects"), rs.getString("reference"),
+                    rs.getString("performed_by"), rs.getTimestamp("occurred_at"))),
+                afterId, MAX_ATTEMPTS, before, REPLAY_BATCH);
+            for (Stored stored : batch) {
+                if (stored.event() != null && process(stored)) count++;
+            }
+            if (batch.size() < REPLAY_BATCH) break;
+            afterId = batch.get(batch.size() - 1).eventId();
+        }
+        if (count > 0) {
+            replayed.addAndGet(count);
+            System.out.println("Domain Events: replayed " + count + " event(s)");
+        }
+        return count;
+    }
+
+    private static DomainEvent toEvent(String type, long studentId, String studentNumber, String subjects,
+                                       String reference, String performedBy, Date occurredAt) {
+        return switch (type) {
+            case DomainEvent.PaymentPosted.TYPE -> new DomainEvent.PaymentPosted(studentId, studentNumber, reference, occurredAt);
+            case DomainEvent.SubjectsEnlisted.TYPE ->
+                new DomainEvent.SubjectsEnlisted(studentNumber, decodeSubjects(subjects), performedBy, occurredAt);
+            case DomainEvent.SubjectsDropped.TYPE ->
+                new DomainEvent.SubjectsDropped(studentNumber, decodeSubjects(subjects), performedBy, occurredAt);
+            default -> {
+                System.out.println("Domain Events: unknown event type " + type);
+                yield null;
+            }
+        };
+    }
+
+    public Stats stats() {
+        Map<String, Object> backlog = jdbcTemplate.queryForMap(
+            "SELECT COUNT(*) AS pending, COALESCE(SUM(attempts >= ?), 0) AS stuck " +
+            "FROM outbox_events WHERE processed_at IS NULL", MAX_ATTEMPTS);
+        return new Stats(((Number) backlog.get("pending")).longValue(), ((Number) backlog.get("stuck")).longValue(),
+            published.get(), handled.get(), replayed.get(), failures.get());
+    }
+
+    /**
+     * Lets running handlers finish; anything not started is replayed on
+     * the next startup.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
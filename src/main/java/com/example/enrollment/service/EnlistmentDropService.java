@@ -0,0 +1,97 @@
+package com.example.enrollment.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Drops any number of a student's enlistments as one set-based operation.
+ *
+ * MySQL has no DELETE ... RETURNING, so the rows are read with
+ * SELECT ... FOR UPDATE and deleted by the same id list in the same
+ * transaction. Seat releases and the balance change are written as
+ * batches, and one {@link DomainEvent.SubjectsDropped} carrying every
+ * dropped subject goes to the outbox; its audit rows (one batch) and a
+ * single waitlist fill pass run after commit, off the request thread.
+ */
+@Service
+public class EnlistmentDropService {
+
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final SeatReservationService seatReservationService;
+    private final StudentBalanceService studentBalanceService;
+    private final DomainEventOutbox domainEventOutbox;
+
+    public EnlistmentDropService(JdbcTemplate jdbcTemplate,
+                                 SeatReservationService seatReservationService,
+                                 StudentBalanceService studentBalanceService,
+                                 DomainEventOutbox domainEventOutbox) {
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.seatReservationService = seatReservationService;
+        this.studentBalanceService = studentBalanceService;
+        this.domainEventOutbox = domainEventOutbox;
+    }
+
+    /**
+     * Removes the given enlistments of one student. Ids that do not exist or
+     * belong to another student are ignored.
+     *
+     * @return number of enlistments removed
+     */
+    @Transactional
+    public int drop(String studentNumber, Collection<Long> enlistmentIds, String performedBy) {
+        Set<Long> requested = new LinkedHashSet<>();
+        for (Long id : enlistmentIds) {
+            if (id != null) requested.add(id);
+        }
+        if (requested.isEmpty()) return 0;
+
+        // 1. Read and lock the rows about to go
+        List<Long> ids = new ArrayList<>();
+        List<DomainEvent.Subject> subjects = new ArrayList<>();
+        Map<Integer, Integer> seatsBySection = new LinkedHashMap<>();
+        Map<Long, Integer> unitDeltas = new LinkedHashMap<>();
+        Date now = new Date();
+
+        namedJdbc.query(
+            "SELECT se.enlistment_id, se.student_id, se.course_id, se.section_id, " +
+            "c.course_code, c.course_title, COALESCE(c.credit_units, 0) AS credit_units " +
+            "FROM student_enlistments se " +
+            "JOIN students s ON se.student_id = s.id " +
+            "JOIN courses c ON se.course_id = c.course_id " +
+            "WHERE se.enlistment_id IN (:ids) AND s.student_number = :studentNumber " +
+            "FOR UPDATE",
+            new MapSqlParameterSource("ids", requested).addValue("studentNumber", studentNumber), rs -> {
+                ids.add(rs.getLong("enlistment_id"));
+                subjects.add(new DomainEvent.Subject(rs.getInt("course_id"), rs.getString("course_code"),
+                    rs.getString("course_title")));
+
+                int sectionId = rs.getInt("section_id");
+                if (!rs.wasNull()) seatsBySection.merge(sectionId, 1, Integer::sum);
+
+                unitDeltas.merge(rs.getLong("student_id"), -rs.getInt("credit_units"), Integer::sum);
+            });
+        if (ids.isEmpty()) return 0;
+
+        // 2. One DELETE and batched counters
+        namedJdbc.update("DELETE FROM student_enlistments WHERE enlistment_id IN (:ids)",
+            new MapSqlParameterSource("ids", ids));
+        seatReservationService.release(seatsBySection);
+        studentBalanceService.applyUnits(unitDeltas);
+
+        // 3. Audit and waitlist backfill run from the events once this commits
+        domainEventOutbox.publish(new DomainEvent.SubjectsDropped(studentNumber, subjects, performedBy, now));
+        return ids.size();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.enrollment.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.enrollment.util.WeeklyTimetable;
+
+/**
+ * Gathers every precondition of an enlistment and returns a structured
+ * verdict the controller branches on.
+ *
+ * Course facts come from the catalog snapshot. The student's status,
+ * duplicate check, current units and the section's seat counter come from
+ * one scalar SELECT. The student's current meetings come from a second
+ * query on the same connection, run only when every earlier check passed.
+ *
+ * FULL is only advisory: the seat itself must still be taken with
+ * {@link SeatReservationService#reserve(Integer)}.
+ */
+@Service
+public class EnlistmentValidator {
+
+    private static final String CHECKS_SQL =
+        "SELECT s.student_number, s.applicant_status, " +
+        "  (SELECT COUNT(*) FROM student_enlistments se WHERE se.student_id = s.id AND se.course_id = ?) AS duplicates, " +
+        "  (SELECT COALESCE(SUM(c.credit_units), 0) FROM student_enlistments se " +
+        "     JOIN courses c ON se.course_id = c.course_id WHERE se.student_id = s.id) AS current_units, " +
+        "  (SELECT CASE WHEN cs.enrolled_count >= COALESCE(cs.max_capacity, " + SeatReservationService.DEFAULT_CAPACITY + ") " +
+        "     THEN 1 ELSE 0 END FROM class_sections cs WHERE cs.section_id = ?) AS is_full " +
+        "FROM students s WHERE s.id = ?";
+
+    private static final String MEETINGS_SQL =
+        "SELECT sch.day_of_week, sch.start_time, sch.end_time, c.course_title " +
+        "FROM student_enlistments se " +
+        "JOIN courses c ON se.course_id = c.course_id " +
+        "JOIN class_schedules sch ON se.section_id = sch.section_id " +
+        "WHERE se.student_id = ?";
+
+    public enum Outcome {
+        OK,
+        STUDENT_NOT_FOUND,
+        SECTION_NOT_FOUND,
+        ALREADY_ENROLLED,
+        DUPLICATE,
+        UNIT_CAP,
+        FULL,
+        CONFLICT
+    }
+
+    /**
+     * Verdict plus the facts the caller needs afterwards (course for the
+     * insert and the log, student number for redirects).
+     */
+    public record Result(Outcome outcome, String studentNumber, CourseCatalog.CourseInfo course,
+                         int currentUnits, String conflictTitle, int conflictDay) {
+
+        public boolean isOk() {
+            return outcome == Outcome.OK;
+        }
+
+        /** The message the cashier screen shows for this outcome (null for OK and FULL). */
+        public String message() {
+            return switch (outcome) {
+                case STUDENT_NOT_FOUND -> "Student not found.";
+                case SECTION_NOT_FOUND -> "Error: Section not found.";
+                case ALREADY_ENROLLED -> "Student already enrolled. Please proceed to Registrar to Add and Drop subjects.";
+                case DUPLICATE -> "Error: This subject is already enlisted.";
+                case UNIT_CAP -> "Error: Maximum limit of " + WaitlistService.MAX_UNITS + " units reached. Current: " + currentUnits + " units.";
+                case CONFLICT -> "Schedule Conflict: Cannot add this subject because it overlaps with " +
+                    conflictTitle + " on " + DayOfWeek.of(conflictDay).getDisplayName(TextStyle.FULL, Locale.ENGLISH) + ".";
+                default -> null;
+            };
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogService catalogService;
+    private final SchedulingService schedulingService;
+
+    public EnlistmentValidator(JdbcTemplate jdbcTemplate, CatalogService catalogService, SchedulingService schedulingService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogService = catalogService;
+        this.schedulingService = schedulingService;
+    }
+
+    /**
+     * Checks, in the order the cashier has always applied them: student
+     * status, duplicate subject, unit cap, capacity, then schedule conflict.
+     */
+    public Result validate(Long studentId, Integer sectionId) {
+        // Catalog lookups are in memory; only sections outside the cached term cost a query
+        CourseCatalog catalog = catalogService.current();
+        CourseCatalog.CourseInfo course = catalogService.courseForSection(sectionId);
+        CourseCatalog.SectionInfo section = (sectionId != null) ? catalog.section(sectionId) : null;
+        WeeklyTimetable candidate = (section != null) ? section.timetable()
+            : (course != null) ? schedulingService.sectionTimetable(sectionId) : null;
+
+        int courseId = (course != null) ? course.courseId() : -1;
+
+        return jdbcTemplate.execute((ConnectionCallback<Result>) con -> {
+            String studentNumber = null;
+            String status = null;
+            int duplicates = 0;
+            int currentUnits = 0;
+            boolean full = false;
+            boolean studentFound = false;
+
+            try (PreparedStatement ps = con.prepareStatement(CHECKS_SQL)) {
+                ps.setInt(1, courseId);
+                ps.setObject(2, sectionId);
+                ps.setObject(3, studentId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        studentFound = true;
+                        studentNumber = rs.getString("student_number");
+                        status = rs.getString("applicant_status");
+                        duplicates = rs.getInt("duplicates");
+                        currentUnits = rs.getInt("current_units");
+                        full = rs.getInt("is_full") == 1;
+                    }
+                }
+            }
+
+            if (!studentFound) return result(Outcome.STUDENT_NOT_FOUND, null, course, 0);
+            if ("ENROLLED".equalsIgnoreCase(status)) return result(Outcome.ALREADY_ENROLLED, studentNumber, course, currentUnits);
+            if (course == null) return result(Outcome.SECTION_NOT_FOUND, studentNumber, null, currentUnits);
+            if (duplicates > 0) return result(Outcome.DUPLICATE, studentNumber, course, currentUnits);
+            if (currentUnits + course.creditUnits() > WaitlistService.MAX_UNITS) {
+                return result(Outcome.UNIT_CAP, studentNumber, course, currentUnits);
+            }
+            if (full) return result(Outcome.FULL, studentNumber, course, currentUnits);
+            if (candidate == null || candidate.isEmpty()) return result(Outcome.OK, studentNumber, course, currentUnits);
+
+            // Current meetings: fold into a bitmap, and name the first clashing one
+            try (PreparedStatement ps = con.prepareStatement(MEETINGS_SQL)) {
+                ps.setObject(1, studentId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Time start = rs.getTime("start_time");
+                        Time end = rs.getTime("end_time");
+                        int day = rs.getInt("day_of_week");
+                        WeeklyTimetable single = new WeeklyTimetable().mark(rs.wasNull() ? null : day,
+                            (start != null) ? start.toLocalTime() : null,
+                            (end != null) ? end.toLocalTime() : null);
+                        int conflictDay = single.firstConflictDay(candidate);
+                        if (conflictDay != 0) {
+                            return new Result(Outcome.CONFLICT, studentNumber, course, currentUnits,
+                                rs.getString("course_title"), conflictDay);
+                        }
+                    }
+                }
+            }
+
+            return result(Outcome.OK, studentNumber, course, currentUnits);
+        });
+    }
+
+    private static Result result(Outcome outcome, String studentNumber, CourseCatalog.CourseInfo course, int currentUnits) {
+        return new Result(outcome, studentNumber, course, currentUnits, null, 0);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.enrollment.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.example.enrollment.util.Money;
+
+/**
+ * Immutable, precompiled form of one term's fee schedule (amounts in
+ * centavos). Built by {@link FeeScheduleService} when schedules load.
+ *
+ * The assessment only depends on the charged units (0 to the unit cap),
+ * and installments are paid in order, so every installment table a
+ * ledger page can show is built up front: one per charged-unit count and
+ * number of installments covered. A request picks its table with an array
+ * index and a short threshold scan and allocates nothing.
+ */
+public final class FeePlan {
+
+    // Tables are precomputed for every unit count up to the cap, so it is kept to a real study load
+    static final int MAX_UNIT_CAP = 60;
+
+    private static final DateTimeFormatter DUE_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM. d, yyyy", Locale.ENGLISH);
+
+    /**
+     * The schedule used before any term has one stored.
+     */
+    public static final FeePlan DEFAULT = new FeePlan(null, Money.ofPesos(1500), 24, Money.ofPesos(7431),
+        Money.ofPesos(18562), Money.ofPesos(3000),
+        List.of("1st Installment", "2nd Installment", "3rd Installment", "4th Installment",
+                "5th Installment", "6th Installment", "7th Installment", "8th Installment"),
+        List.of(LocalDate.of(2026, 8, 30), LocalDate.of(2026, 9, 15), LocalDate.of(2026, 9, 30),
+                LocalDate.of(2026, 10, 15), LocalDate.of(2026, 10, 30), LocalDate.of(2026, 11, 15),
+                LocalDate.of(2026, 11, 30), LocalDate.of(2026, 12, 10)));
+
+    /**
+     * One row of the installment table. Getters rather than a record so the
+     * templates can read it as a bean.
+     */
+    public static final class Line {
+        private final String label;
+        private final String dueDate;
+        private final BigDecimal amount;
+        private final String status;
+
+        Line(String label, String dueDate, BigDecimal amount, String status) {
+            this.label = label;
+            this.dueDate = dueDate;
+            this.amount = amount;
+            this.status = status;
+        }
+
+        public String getLabel() { return label; }
+        public String getDueDate() { return dueDate; }
+        public BigDecimal getAmount() { return amount; }
+        public String getStatus() { return status; }
+    }
+
+    private final Integer termId;
+    private final long ratePerUnit;
+    private final int unitCap;
+    private final long miscFees;
+    private final long otherFees;
+    private final long downpayment;
+    private final LocalDate[] dueDates;
+
+    // Indexed by charged units (0..unitCap)
+    private final long[] assessments;
+    private final long[][] thresholds;     // [units][i]: paid total that covers installment i
+    private final List<Line>[][] tables;  // [units][k]: table with the first k installments paid
+
+    @SuppressWarnings("unchecked")
+    FeePlan(Integer termId, long ratePerUnit, int unitCap, long miscFees, long otherFees, long downpayment,
+            List<String> labels, List<LocalDate> dueDates) {
+        // A cap of at least one unit keeps "enlisted at all" and "charged units > 0" the same thing
+        if (unitCap < 1 || unitCap > MAX_UNIT_CAP || labels.size() != dueDates.size()) {
+            throw new IllegalArgumentException("Invalid fee schedule for term " + termId);
+        }
+        this.termId = termId;
+        this.ratePerUnit = ratePerUnit;
+        this.unitCap = unitCap;
+        this.miscFees = miscFees;
+        this.otherFees = otherFees;
+        this.downpayment = downpayment;
+
+        this.dueDates = dueDates.toArray(new LocalDate[0]);
+
+        int count = labels.size();
+        String[] due = new String[count];
+        for (int i = 0; i < count; i++) due[i] = dueDates.get(i).format(DUE_DATE_FORMAT);
+
+        assessments = new long[unitCap + 1];
+        thresholds = new long[unitCap + 1][count];
+        tables = new List[unitCap + 1][count + 1];
+        for (int units = 0; units <= unitCap; units++) {
+            long assessment = units * ratePerUnit + ((units > 0) ? miscFees + otherFees : 0);
+            assessments[units] = assessment;
+
+            // Leftover centavos go to the first installments so the plan adds up exactly
+            long remaining = Math.max(assessment - downpayment, 0);
+            BigDecimal[] amounts = new BigDecimal[count];
+            for (int i = 0; i < count; i++) {
+                amounts[i] = Money.toDecimal(Money.share(remaining, count, i));
+                thresholds[units][i] = downpayment + Money.sharesThrough(remaining, count, i + 1);
+            }
+            for (int paid = 0; paid <= count; paid++) {
+                List<Line> table = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    table.add(new Line(labels.get(i), due[i], amounts[i], (i < paid) ? "PAID" : "UNPAID"));
+                }
+                tables[units][paid] = List.copyOf(table);
+            }
+        }
+    }
+
+    /** Term this plan belongs to (null for {@link #DEFAULT}). */
+    public Integer termId() { return termId; }
+
+    public int unitCap() { return unitCap; }
+    public long ratePerUnit() { return ratePerUnit; }
+    public long miscFees() { return miscFees; }
+    public long otherFees() { return otherFees; }
+    public long downpayment() { return downpayment; }
+    public int installmentCount() { return thresholds[0].length; }
+
+    public int chargedUnits(int totalUnits) {
+        return Math.max(0, Math.min(totalUnits, unitCap));
+    }
+
+    public long tuition(int totalUnits) {
+        return chargedUnits(totalUnits) * ratePerUnit;
+    }
+
+    /**
+     * Capped tuition plus misc and other fees (the fixed fees only apply
+     * once the student has enlisted subjects).
+     */
+    public long assessment(int totalUnits) {
+        return assessments[chargedUnits(totalUnits)];
+    }
+
+    /**
+     * Installment table for a load, with every installment the tuition
+     * payments cover marked PAID.
+     */
+    public List<Line> installments(int totalUnits, long tuitionPaid) {
+        return tables[chargedUnits(totalUnits)][installmentsCovered(totalUnits, tuitionPaid)];
+    }
+
+    /**
+     * Number of installments (in order) the tuition payments fully cover.
+     */
+    public int installmentsCovered(int totalUnits, long tuitionPaid) {
+        long[] due = thresholds[chargedUnits(totalUnits)];
+        int paid = 0;
+        while (paid < due.length && tuitionPaid >= due[paid]) paid++;
+        return paid;
+    }
+
+    /**
+     * Number of installments due on or before the date.
+     */
+    public int installmentsDueBy(LocalDate date) {
+        int due = 0;
+        while (due < dueDates.length && !dueDates[due].isAfter(date)) due++;
+        return due;
+    }
+
+    /**
+     * What a load should have paid once the first {@code installmentsDue}
+     * installments are due: the downpayment plus those installments, never
+     * more than the assessment itself.
+     */
+    public long amountDue(int totalUnits, int installmentsDue) {
+        int units = chargedUnits(totalUnits);
+        long owed = (installmentsDue == 0) ? downpayment : thresholds[units][installmentsDue - 1];
+        return Math.min(owed, assessments[units]);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.enrollment.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener on fee schedules, their installments and terms (a
+ * term status change can change which plan is current). Like
+ * {@link CatalogChangeListener}, it schedules one plan reload after the
+ * surrounding transaction commits.
+ */
+@Component
+public class FeeScheduleChangeListener {
+
+    private static final Object RELOAD_KEY = FeeScheduleChangeListener.class.getName() + ".reload";
+
+    private final ObjectProvider<FeeScheduleService> feeScheduleService;
+
+    public FeeScheduleChangeListener(ObjectProvider<FeeScheduleService> feeScheduleService) {
+        this.feeScheduleService = feeScheduleService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            feeScheduleService.ifAvailable(FeeScheduleService::refresh);
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(RELOAD_KEY)) {
+            return; // already scheduled for this transaction
+        }
+        TransactionSynchronizationManager.bindResource(RELOAD_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RELOAD_KEY);
+                if (status == STATUS_COMMITTED) {
+                    feeScheduleService.ifAvailable(FeeScheduleService::refresh);
+                }
+            }
+        });
+    }
+}
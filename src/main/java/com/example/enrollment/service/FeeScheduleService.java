@@ -0,0 +1,187 @@
+package com.example.enrollment.service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.enrollment.entity.AcademicTerm;
+import com.example.enrollment.entity.FeeInstallment;
+import com.example.enrollment.entity.FeeSchedule;
+import com.example.enrollment.repository.AcademicTermRepository;
+import com.example.enrollment.repository.FeeInstallmentRepository;
+import com.example.enrollment.repository.FeeScheduleRepository;
+import com.example.enrollment.util.Money;
+
+/**
+ * Holds the compiled {@link FeePlan} of every term that has a fee
+ * schedule. Plans are rebuilt off to the side and swapped in whenever a
+ * schedule, installment or term changes (see
+ * {@link FeeScheduleChangeListener}). The plan of the newest active term
+ * is the current one; {@link FeePlan#DEFAULT} applies until a schedule is
+ * stored.
+ */
+@Service
+public class FeeScheduleService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FeeScheduleRepository feeScheduleRepository;
+    private final FeeInstallmentRepository feeInstallmentRepository;
+    private final AcademicTermRepository academicTermRepository;
+
+    private record Plans(Map<Integer, FeePlan> byTerm, FeePlan current) {}
+
+    private volatile Plans plans = new Plans(Map.of(), FeePlan.DEFAULT);
+
+    public FeeScheduleService(JdbcTemplate jdbcTemplate,
+                              FeeScheduleRepository feeScheduleRepository,
+                              FeeInstallmentRepository feeInstallmentRepository,
+                              AcademicTermRepository academicTermRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.feeScheduleRepository = feeScheduleRepository;
+        this.feeInstallmentRepository = feeInstallmentRepository;
+        this.academicTermRepository = academicTermRepository;
+    }
+
+    /**
+     * Schedule as entered by an admin; amounts in pesos.
+     */
+    public record ScheduleRequest(BigDecimal ratePerUnit, Integer unitCap, BigDecimal miscFees,
+                                  BigDecimal otherFees, BigDecimal downpayment, List<InstallmentRequest> installments) {}
+
+    public record InstallmentRequest(String label, LocalDate dueDate) {}
+
+    public FeePlan current() {
+        return plans.current();
+    }
+
+    /**
+     * The term's plan, or the current plan when the term has no schedule.
+     */
+    public FeePlan forTerm(Integer termId) {
+        Plans snapshot = plans;
+        FeePlan plan = (termId != null) ? snapshot.byTerm().get(termId) : null;
+        return (plan != null) ? plan : snapshot.current();
+    }
+
+    /**
+     * Reloads every schedule from the database and swaps the compiled plans in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        Map<Integer, List<String>> labels = new HashMap<>();
+        Map<Integer, List<LocalDate>> dueDates = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT schedule_id, label, due_date FROM fee_installments ORDER BY schedule_id, sequence_no",
+            rs -> {
+                int scheduleId = rs.getInt("schedule_id");
+                labels.computeIfAbsent(scheduleId, k -> new ArrayList<>()).add(rs.getString("label"));
+                dueDates.computeIfAbsent(scheduleId, k -> new ArrayList<>()).add(rs.getDate("due_date").toLocalDate());
+            });
+
+        Map<Integer, FeePlan> byTerm = new HashMap<>();
+        FeePlan[] current = { null };
+        Date[] currentStart = { null };
+        jdbcTemplate.query(
+            "SELECT fs.schedule_id, fs.term_id, fs.rate_per_unit, fs.unit_cap, fs.misc_fees, fs.other_fees, " +
+            "fs.downpayment, t.start_date, UPPER(t.status) = 'ACTIVE' AS active " +
+            "FROM fee_schedules fs JOIN academic_terms t ON fs.term_id = t.term_id",
+            rs -> {
+                int scheduleId = rs.getInt("schedule_id");
+                int termId = rs.getInt("term_id");
+                FeePlan plan;
+                try {
+                    plan = new FeePlan(termId, Money.of(rs.getBigDecimal("rate_per_unit")), rs.getInt("unit_cap"),
+                        Money.of(rs.getBigDecimal("misc_fees")), Money.of(rs.getBigDecimal("other_fees")),
+                        Money.of(rs.getBigDecimal("downpayment")),
+                        labels.getOrDefault(scheduleId, List.of()), dueDates.getOrDefault(scheduleId, List.of()));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Fee Schedule: skipping schedule " + scheduleId + ": " + e.getMessage());
+                    return;
+                }
+                byTerm.put(termId, plan);
+
+                // A term without a start date cannot be ordered, so it never becomes the current one
+                Date start = rs.getDate("start_date");
+                if (start != null && rs.getBoolean("active") && (currentStart[0] == null || start.after(currentStart[0]))) {
+                    current[0] = plan;
+                    currentStart[0] = start;
+                }
+            });
+
+        plans = new Plans(Map.copyOf(byTerm), (current[0] != null) ? current[0] : FeePlan.DEFAULT);
+    }
+
+    /**
+     * Creates or replaces a term's schedule. The compiled plans reload
+     * once the transaction commits.
+     */
+    @Transactional
+    public FeeSchedule save(Integer termId, ScheduleRequest request) {
+        AcademicTerm term = academicTermRepository.findById(termId)
+            .orElseThrow(() -> new IllegalArgumentException("Term " + termId + " does not exist."));
+        validate(request);
+
+        FeeSchedule schedule = feeScheduleRepository.findByTerm_TermId(termId);
+        if (schedule == null) {
+            schedule = new FeeSchedule();
+            schedule.setTerm(term);
+        } else {
+            feeInstallmentRepository.deleteAllInBatch(
+                feeInstallmentRepository.findBySchedule_ScheduleIdOrderBySequenceNo(schedule.getScheduleId()));
+        }
+        schedule.setRatePerUnit(request.ratePerUnit());
+        schedule.setUnitCap(request.unitCap());
+        schedule.setMiscFees(request.miscFees());
+        schedule.setOtherFees(request.otherFees());
+        schedule.setDownpayment(request.downpayment());
+        schedule = feeScheduleRepository.save(schedule);
+
+        List<FeeInstallment> installments = new ArrayList<>();
+        int sequence = 1;
+        for (InstallmentRequest item : request.installments()) {
+            FeeInstallment installment = new FeeInstallment();
+            installment.setSchedule(schedule);
+            installment.setSequenceNo(sequence++);
+            installment.setLabel(item.label().trim());
+            installment.setDueDate(item.dueDate());
+            installments.add(installment);
+        }
+        feeInstallmentRepository.saveAll(installments);
+        return schedule;
+    }
+
+    static void validate(ScheduleRequest request) {
+        if (request.ratePerUnit() == null || request.miscFees() == null || request.otherFees() == null
+                || request.downpayment() == null || request.unitCap() == null || request.installments() == null) {
+            throw new IllegalArgumentException("ratePerUnit, unitCap, miscFees, otherFees, downpayment and installments are required.");
+        }
+        if (request.unitCap() < 1 || request.unitCap() > FeePlan.MAX_UNIT_CAP) {
+            throw new IllegalArgumentException("unitCap must be between 1 and " + FeePlan.MAX_UNIT_CAP + ".");
+        }
+        for (BigDecimal amount : List.of(request.ratePerUnit(), request.miscFees(), request.otherFees(), request.downpayment())) {
+            if (amount.signum() < 0 || amount.scale() > 2) {
+                throw new IllegalArgumentException("Fee amounts must be non-negative with at most two decimals.");
+            }
+        }
+        LocalDate previous = null;
+        for (InstallmentRequest item : request.installments()) {
+            if (item == null || item.label() == null || item.label().isBlank() || item.dueDate() == null) {
+                throw new IllegalArgumentException("Every installment needs a label and a due date.");
+            }
+            if (previous != null && item.dueDate().isBefore(previous)) {
+                throw new IllegalArgumentException("Installment due dates must be in order.");
+            }
+            previous = item.dueDate();
+        }
+    }
+}
@@ -1,128 +1,151 @@
 package com.example.enrollment.service;
 
-import com.example.enrollment.entity.Student;
 import com.example.enrollment.repository.PaymentRepository;
+import com.example.enrollment.repository.StudentSummary;
+import com.example.enrollment.util.Money;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.ui.Model;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class FinancialService {
 
+    private static final ColumnMapRowMapper ROW_MAPPER = new ColumnMapRowMapper();
+
     private final JdbcTemplate jdbcTemplate;
     private final PaymentRepository paymentRepository;
+    private final FeeScheduleService feeScheduleService;
 
-    public FinancialService(JdbcTemplate jdbcTemplate, PaymentRepository paymentRepository) {
+    public FinancialService(JdbcTemplate jdbcTemplate, PaymentRepository paymentRepository,
+                            FeeScheduleService feeScheduleService) {
         this.jdbcTemplate = jdbcTemplate;
         this.paymentRepository = paymentRepository;
+        this.feeScheduleService = feeScheduleService;
+    }
+
+    // Enlisted subjects and payment history, two statements on one connection.
+    // Unit and tuition totals are derived from these rows instead of separate SUM queries.
+    private static final String SUBJECTS_SQL =
+        "SELECT se.enlistment_id, c.course_code, c.course_title, c.credit_units, " +
+        "COALESCE(GROUP_CONCAT(CONCAT(" +
+        "  CASE sch.day_of_week " +
+        "    WHEN 1 THEN 'Mon' WHEN 2 THEN 'Tue' WHEN 3 THEN 'Wed' " +
+        "    WHEN 4 THEN 'Thu' WHEN 5 THEN 'Fri' WHEN 6 THEN 'Sat' WHEN 7 THEN 'Sun' ELSE '' " +
+        "  END, ' ', " +
+        "  TIME_FORMAT(sch.start_time, '%h:%i %p'), '-', TIME_FORMAT(sch.end_time, '%h:%i %p')) " +
+        "  SEPARATOR ', '), 'TBA') as schedule " +
+        "FROM student_enlistments se " +
+        "JOIN courses c ON se.course_id = c.course_id " +
+        "LEFT JOIN class_sections cs ON se.section_id = cs.section_id " +
+        "LEFT JOIN class_schedules sch ON cs.section_id = sch.section_id " +
+        "WHERE se.student_id = ? " +
+        "GROUP BY se.enlistment_id";
+
+    private static final String PAYMENTS_SQL =
+        "SELECT transaction_id, amount, payment_method, payment_date, remarks FROM payments " +
+        "WHERE reference_number = ? ORDER BY payment_date DESC";
+
+    /**
+     * Loads the student's enlisted subjects and payment history with two
+     * queries on one connection.
+     */
+    public StudentLedgerSnapshot loadLedger(StudentSummary student) {
+        return jdbcTemplate.execute((ConnectionCallback<StudentLedgerSnapshot>) con -> {
+            List<Map<String, Object>> enlistedSubjects = new ArrayList<>();
+            List<Map<String, Object>> paymentHistory = new ArrayList<>();
+
+            try (PreparedStatement ps = con.prepareStatement(SUBJECTS_SQL)) {
+                ps.setLong(1, student.getId());
+                readRows(ps.executeQuery(), enlistedSubjects);
+            }
+            try (PreparedStatement ps = con.prepareStatement(PAYMENTS_SQL)) {
+                ps.setString(1, student.getStudentNumber());
+                readRows(ps.executeQuery(), paymentHistory);
+            }
+
+            int totalUnits = 0;
+            for (Map<String, Object> row : enlistedSubjects) {
+                Object units = row.get("credit_units");
+                if (units != null) totalUnits += ((Number) units).intValue();
+            }
+
+            long tuitionPaid = 0;
+            for (Map<String, Object> row : paymentHistory) {
+                if (StudentLedgerSnapshot.isTuitionPayment(row.get("remarks"))) {
+                    tuitionPaid += Money.of(row.get("amount"));
+                }
+            }
+
+            return new StudentLedgerSnapshot(totalUnits, tuitionPaid, enlistedSubjects, paymentHistory);
+        });
     }
 
-    public void populateStudentFinancialData(Student student, Model model) {
-        // 1. Fetch total units
-        Integer totalUnitsFromDb = jdbcTemplate.queryForObject(
-            "SELECT COALESCE(SUM(c.credit_units), 0) FROM student_enlistments se " +
-            "JOIN courses c ON se.course_id = c.course_id WHERE se.student_id = ?",
-            Integer.class, student.getId());
-        
-        int totalUnits = (totalUnitsFromDb != null) ? totalUnitsFromDb : 0;
-        
-        // --- ADDED: 24-UNIT CAP LOGIC ---
-        int unitsToCharge = Math.min(totalUnits, 24); 
-        
-        
-     // 2. Fees Calculation
-        double ratePerUnit = 1500.00;
-        double tuitionFee = unitsToCharge * ratePerUnit; // Capped tuition
-
-        // NEW: Only apply Misc and Other fees if the student actually enrolled in subjects
-        double miscTotal = (totalUnits > 0) ? 7431.00 : 0.00;
-        double otherFeesTotal = (totalUnits > 0) ? 18562.00 : 0.00;
-
-        // 3. Total Assessment
-        double totalAssessment = tuitionFee + miscTotal + otherFeesTotal;
-
-        // ---> FIXED: 4. Get Payments (ONLY DEDUCT TUITION FEES FROM BALANCE) <---
-        Double tuitionPaymentsFromDb = jdbcTemplate.queryForObject(
-            "SELECT SUM(amount) FROM payments WHERE reference_number = ? " +
-            "AND (remarks = 'Tuition Fee' OR remarks IS NULL OR remarks = '')", 
-            Double.class, student.getStudentNumber());
-            
-        double totalPaid = (tuitionPaymentsFromDb != null) ? tuitionPaymentsFromDb : 0.00;
-        double outstandingBalance = totalAssessment - totalPaid;
-
-        // 5. INSTALLMENT LOGIC (8 Installments)
-        double downpaymentFixed = 3000.00;
-        double remainingForInstallments = totalAssessment - downpaymentFixed;
-        
-        List<Map<String, Object>> installmentSchedule = new ArrayList<>();
-        double installmentAmount = (remainingForInstallments > 0) ? (remainingForInstallments / 8) : 0;
-
-        String[] dueDates = {
-            "Aug. 30, 2026", "Sep. 15, 2026", "Sep. 30, 2026", "Oct. 15, 2026", 
-            "Oct. 30, 2026", "Nov. 15, 2026", "Nov. 30, 2026", "Dec. 10, 2026"
-        };
-        String[] labels = {
-            "1st Installment", "2nd Installment", "3rd Installment", "4th Installment",
-            "5th Installment", "6th Installment", "7th Installment", "8th Installment"
-        };
-
-        for (int i = 0; i < 8; i++) {
-            Map<String, Object> installment = new HashMap<>();
-            installment.put("label", labels[i]);
-            installment.put("dueDate", dueDates[i]);
-            installment.put("amount", installmentAmount);
-            
-            // The threshold increases with each installment
-            double threshold = downpaymentFixed + (installmentAmount * (i + 1));
-            
-            // Precision fix: using -0.01 to handle small rounding differences in double math
-            installment.put("status", totalPaid >= (threshold - 0.01) ? "PAID" : "UNPAID");
-            installmentSchedule.add(installment);
+    private static void readRows(ResultSet rs, List<Map<String, Object>> target) throws SQLException {
+        try (rs) {
+            int rowNum = 0;
+            while (rs.next()) {
+                target.add(ROW_MAPPER.mapRow(rs, rowNum++));
+            }
         }
+    }
+
+    /**
+     * Fee plan of the current term.
+     */
+    public FeePlan currentPlan() {
+        return feeScheduleService.current();
+    }
+
+    /**
+     * Total assessment for a load in centavos, from the current term's fee plan.
+     */
+    public long computeAssessment(int totalUnits) {
+        return currentPlan().assessment(totalUnits);
+    }
+
+    public void populateStudentFinancialData(StudentSummary student, Model model) {
+        populateStudentFinancialData(loadLedger(student), model);
+    }
+
+    public void populateStudentFinancialData(StudentLedgerSnapshot ledger, Model model) {
+        FeePlan plan = currentPlan();
+
+        // 1. Total units (already summed from the enlisted rows); tuition stops at the plan's unit cap
+        int totalUnits = ledger.totalUnits();
+        int unitsToCharge = plan.chargedUnits(totalUnits);
+
+        // 2. Fees and total assessment, all in centavos
+        long tuitionFee = plan.tuition(totalUnits);
+        long totalAssessment = plan.assessment(totalUnits);
+
+        // 3. Payments (ONLY TUITION FEES ARE DEDUCTED FROM BALANCE)
+        long totalPaid = ledger.tuitionPaid();
+        long outstandingBalance = totalAssessment - totalPaid;
 
-        // 6. Populate Model
+        // 4. Populate Model (exact decimals for display). The installment table
+        // is one of the plan's prebuilt tables for this load and paid total.
         model.addAttribute("totalUnits", totalUnits); // Show actual load
         model.addAttribute("unitsCharged", unitsToCharge); // Show capped units
-        model.addAttribute("tuitionTotal", tuitionFee);
-        model.addAttribute("totalAssessment", totalAssessment);
-        model.addAttribute("totalOnlinePayments", totalPaid);
-        model.addAttribute("outstandingBalance", outstandingBalance);
-
-        model.addAttribute("downpaymentAmount", downpaymentFixed);
-        model.addAttribute("downpaymentStatus", totalPaid >= downpaymentFixed ? "PAID" : "UNPAID");
-        model.addAttribute("installments", installmentSchedule);
-
-        // ---> FIXED: 7. Enlisted Subjects Query (Now uses se.section_id and COALESCE TBA) <---
-        List<Map<String, Object>> enlistedSubjects = jdbcTemplate.queryForList(
-            "SELECT se.enlistment_id, c.course_code, c.course_title, c.credit_units, " +
-            "COALESCE(GROUP_CONCAT(CONCAT(" +
-            "  CASE sch.day_of_week " +
-            "    WHEN 1 THEN 'Mon' WHEN 2 THEN 'Tue' WHEN 3 THEN 'Wed' " +
-            "    WHEN 4 THEN 'Thu' WHEN 5 THEN 'Fri' WHEN 6 THEN 'Sat' WHEN 7 THEN 'Sun' ELSE '' " +
-            "  END, ' ', " +
-            "  TIME_FORMAT(sch.start_time, '%h:%i %p'), '-', TIME_FORMAT(sch.end_time, '%h:%i %p')) " +
-            "  SEPARATOR ', '), 'TBA') as schedule " +
-            "FROM student_enlistments se " +
-            "JOIN courses c ON se.course_id = c.course_id " +
-            "LEFT JOIN class_sections cs ON se.section_id = cs.section_id " +  // <-- This fixes the schedules!
-            "LEFT JOIN class_schedules sch ON cs.section_id = sch.section_id " +
-            "WHERE se.student_id = ? " +
-            "GROUP BY se.enlistment_id", 
-            student.getId());
-
-        model.addAttribute("enlistedSubjects", enlistedSubjects);
-        
-        // 8. Payment History (Naturally displays ALL transactions, including parking/documents)
-        List<Map<String, Object>> paymentHistory = jdbcTemplate.queryForList(
-            "SELECT transaction_id, amount, payment_method, payment_date, remarks FROM payments " +
-            "WHERE reference_number = ? ORDER BY payment_date DESC",
-            student.getStudentNumber());
-            
-        model.addAttribute("paymentHistory", paymentHistory);
+        model.addAttribute("tuitionTotal", Money.toDecimal(tuitionFee));
+        model.addAttribute("totalAssessment", Money.toDecimal(totalAssessment));
+        model.addAttribute("totalOnlinePayments", Money.toDecimal(totalPaid));
+        model.addAttribute("outstandingBalance", Money.toDecimal(outstandingBalance));
+
+        model.addAttribute("downpaymentAmount", Money.toDecimal(plan.downpayment()));
+        model.addAttribute("downpaymentStatus", totalPaid >= plan.downpayment() ? "PAID" : "UNPAID");
+        model.addAttribute("installments", plan.installments(totalUnits, totalPaid));
+
+        // 5. Enlisted Subjects & 6. Payment History (ALL transactions, including parking/documents)
+        model.addAttribute("enlistedSubjects", ledger.enlistedSubjects());
+        model.addAttribute("paymentHistory", ledger.paymentHistory());
     }
-}
\ No newline at end of file
+}
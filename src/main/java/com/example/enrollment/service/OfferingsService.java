@@ -0,0 +1,191 @@
+package com.example.enrollment.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read model behind the cashier's section picker.
+ *
+ * One entry per offered section of the current {@link CourseCatalog}, with
+ * the schedule string already formatted and the enrollment count held in
+ * memory. Sections are kept sorted by upper-cased course code so a code
+ * filter is a binary search plus a slice, and a page is built without
+ * touching the database.
+ *
+ * Counts follow {@link SeatCountChanged} events after commit; the view is
+ * rebuilt when the catalog snapshot is replaced, and counts are re-read
+ * periodically to absorb edits made outside the application.
+ */
+@Service
+public class OfferingsService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private final CatalogService catalogService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile View view;
+
+    public OfferingsService(CatalogService catalogService, JdbcTemplate jdbcTemplate) {
+        this.catalogService = catalogService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * One page of offerings. Rows use the same keys as the old cashier query
+     * (course_id, course_code, course_title, section_id, section_code,
+     * max_capacity, enrolled_count, schedule).
+     */
+    public record Page(List<Map<String, Object>> rows, int page, int size, int total) {
+        public boolean hasPrevious() { return page > 0; }
+        public boolean hasNext() { return (long) (page + 1) * size < total; }
+        public int totalPages() { return (total + size - 1) / size; }
+    }
+
+    /**
+     * Offerings whose course code starts with the given prefix (ignoring
+     * case; blank means all), paginated by zero-based page number.
+     */
+    public Page page(String courseCode, int page, int size) {
+        int pageSize = (size <= 0) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        View v = currentView();
+
+        int from = 0;
+        int to = v.sections.length;
+        String prefix = (courseCode == null) ? "" : courseCode.trim().toUpperCase(Locale.ROOT);
+        if (!prefix.isEmpty()) {
+            from = lowerBound(v.codes, prefix);
+            // Character.MAX_VALUE sorts after every char a code can continue with
+            to = lowerBound(v.codes, prefix + Character.MAX_VALUE);
+        }
+
+        int total = to - from;
+        int pageNo = Math.max(page, 0);
+        if (pageNo > 0 && (long) pageNo * pageSize >= total) {
+            pageNo = Math.max((total - 1) / pageSize, 0); // past the end: show the last page
+        }
+
+        int start = from + pageNo * pageSize;
+        int end = Math.min(start + pageSize, to);
+        List<Map<String, Object>> rows = new ArrayList<>(Math.max(end - start, 0));
+        for (int i = start; i < end; i++) {
+            rows.add(v.row(i));
+        }
+        return new Page(rows, pageNo, pageSize, total);
+    }
+
+    // --- MAINTENANCE ---
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatCountChanged(SeatCountChanged event) {
+        View v = view;
+        if (v != null && event.sectionId() >= 0 && event.sectionId() < v.enrolled.length()) {
+            v.enrolled.getAndUpdate(event.sectionId(), n -> Math.max(n + event.delta(), 0));
+        }
+    }
+
+    /**
+     * Re-reads every counter from class_sections.
+     */
+    @Scheduled(initialDelayString = "${enrollment.offerings.resync-interval-ms:300000}",
+               fixedDelayString = "${enrollment.offerings.resync-interval-ms:300000}")
+    public void resyncCounts() {
+        View v = view;
+        if (v != null) loadCounts(v.enrolled);
+    }
+
+    // Rebuilds when the catalog snapshot has been swapped since the view was built
+    private View currentView() {
+        CourseCatalog catalog = catalogService.current();
+        View v = view;
+        if (v != null && v.catalog == catalog) return v;
+
+        synchronized (this) {
+            v = view;
+            if (v != null && v.catalog == catalog) return v;
+            v = build(catalog);
+            view = v;
+            return v;
+        }
+    }
+
+    private View build(CourseCatalog catalog) {
+        CourseCatalog.SectionInfo[] sections = catalog.offeredSections().toArray(new CourseCatalog.SectionInfo[0]);
+        Arrays.sort(sections, Comparator
+            .comparing((CourseCatalog.SectionInfo s) -> upperCode(catalog, s))
+            .thenComparing(s -> String.valueOf(s.sectionCode())));
+
+        String[] codes = new String[sections.length];
+        int maxSectionId = 0;
+        for (int i = 0; i < sections.length; i++) {
+            codes[i] = upperCode(catalog, sections[i]);
+            maxSectionId = Math.max(maxSectionId, sections[i].sectionId());
+        }
+
+        AtomicIntegerArray enrolled = new AtomicIntegerArray(maxSectionId + 1);
+        loadCounts(enrolled);
+        return new View(catalog, sections, codes, enrolled);
+    }
+
+    private void loadCounts(AtomicIntegerArray enrolled) {
+        jdbcTemplate.query("SELECT section_id, enrolled_count FROM class_sections", rs -> {
+            int id = rs.getInt("section_id");
+            if (id >= 0 && id < enrolled.length()) enrolled.set(id, rs.getInt("enrolled_count"));
+        });
+    }
+
+    private static String upperCode(CourseCatalog catalog, CourseCatalog.SectionInfo section) {
+        return String.valueOf(catalog.course(section.courseId()).courseCode()).toUpperCase(Locale.ROOT);
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static final class View {
+        final CourseCatalog catalog;
+        final CourseCatalog.SectionInfo[] sections;
+        final String[] codes;
+        final AtomicIntegerArray enrolled; // indexed by section id
+
+        View(CourseCatalog catalog, CourseCatalog.SectionInfo[] sections, String[] codes, AtomicIntegerArray enrolled) {
+            this.catalog = catalog;
+            this.sections = sections;
+            this.codes = codes;
+            this.enrolled = enrolled;
+        }
+
+        Map<String, Object> row(int i) {
+            CourseCatalog.SectionInfo section = sections[i];
+            CourseCatalog.CourseInfo course = catalog.course(section.courseId());
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("course_id", course.courseId());
+            row.put("course_code", course.courseCode());
+            row.put("course_title", course.courseTitle());
+            row.put("section_id", section.sectionId());
+            row.put("section_code", section.sectionCode());
+            row.put("max_capacity", section.maxCapacity());
+            row.put("enrolled_count", enrolled.get(section.sectionId()));
+            row.put("schedule", section.scheduleText());
+            return row;
+        }
+    }
+}
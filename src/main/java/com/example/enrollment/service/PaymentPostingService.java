@@ -0,0 +1,184 @@
+package com.example.enrollment.service;
+
+import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.enrollment.entity.Payment;
+import com.example.enrollment.entity.Student;
+import com.example.enrollment.repository.PaymentRepository;
+
+/**
+ * Posts over-the-counter payments exactly once per idempotency key.
+ *
+ * The walk-in form carries a key generated when the page is rendered, so
+ * a double-click or a browser retry submits the same key again. Recent
+ * keys sit in a small in-memory cache: a retry of a finished post gets
+ * the original result back without touching the database, and a retry
+ * that arrives while the first post is still running waits for it. Keys
+ * that have left the cache (or were posted by another instance) are
+ * caught by the unique index on payments.idempotency_key. A key reused
+ * for a different student, amount or remarks is rejected rather than
+ * answered with the other payment's receipt. Expired keys are swept on a
+ * timer, not on the posting path.
+ *
+ * The payment, its receipt snapshot and the ledger change commit together
+ * with a {@link DomainEvent.PaymentPosted} event; the applicant status
+ * update runs from that event after commit.
+ */
+@Service
+public class PaymentPostingService {
+
+    static final int MAX_CACHED_KEYS = 10_000;
+
+    private final PaymentRepository paymentRepository;
+    private final StudentBalanceService studentBalanceService;
+    private final DomainEventOutbox domainEventOutbox;
+    private final ReceiptSnapshotService receiptSnapshotService;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMillis;
+
+    // What a key was used for: a replay must ask for the same payment
+    private record Fingerprint(String studentNumber, long centavos, String remarks) {
+
+        boolean matches(Payment payment) {
+            return Objects.equals(studentNumber, payment.getReferenceNumber())
+                && centavos == payment.getAmountCentavos()
+                && Objects.equals(remarks, payment.getRemarks());
+        }
+    }
+
+    // A key's post, in flight or finished, until it expires
+    private record Entry(Fingerprint fingerprint, CompletableFuture<Posting> result, long expiresAt) {}
+
+    private final ConcurrentHashMap<String, Entry> recent = new ConcurrentHashMap<>();
+
+    public PaymentPostingService(PaymentRepository paymentRepository,
+                                 StudentBalanceService studentBalanceService,
+                                 DomainEventOutbox domainEventOutbox,
+                                 ReceiptSnapshotService receiptSnapshotService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${enrollment.payments.idempotency-ttl-minutes:10}") long ttlMinutes) {
+        this.paymentRepository = paymentRepository;
+        this.studentBalanceService = studentBalanceService;
+        this.domainEventOutbox = domainEventOutbox;
+        this.receiptSnapshotService = receiptSnapshotService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlMillis = ttlMinutes * 60_000;
+    }
+
+    /**
+     * Result of a post. {@code replayed} is true when the key had already
+     * been posted and nothing new was written.
+     */
+    public record Posting(String transactionId, boolean replayed) {}
+
+    /**
+     * Records a walk-in payment for the student, or returns the original
+     * posting when the key has been seen before.
+     */
+    public Posting postWalkIn(String idempotencyKey, Student student, long amountCentavos,
+                              String paymentType, String remarks) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > 64) {
+            throw new IllegalArgumentException("A payment key of at most 64 characters is required.");
+        }
+        long now = System.currentTimeMillis();
+        if (recent.size() >= MAX_CACHED_KEYS) {
+            // Over the bound between sweeps: drop every finished entry, the database still has the keys
+            recent.values().removeIf(entry -> entry.result().isDone());
+        }
+
+        Fingerprint fingerprint = new Fingerprint(student.getStudentNumber(), amountCentavos, remarks);
+        Entry mine = new Entry(fingerprint, new CompletableFuture<>(), now + ttlMillis);
+        Entry existing = recent.putIfAbsent(idempotencyKey, mine);
+        if (existing != null) {
+            if (existing.expiresAt() > now) {
+                if (!existing.fingerprint().equals(fingerprint)) {
+                    throw reused();
+                }
+                try {
+                    return new Posting(existing.result().join().transactionId(), true);
+                } catch (CompletionException e) {
+                    // The first attempt failed and wrote nothing; this retry gets its own go
+                }
+            }
+            recent.remove(idempotencyKey, existing);
+            return postWalkIn(idempotencyKey, student, amountCentavos, paymentType, remarks);
+        }
+
+        try {
+            Posting posting = post(idempotencyKey, fingerprint, student, amountCentavos, paymentType, remarks);
+            mine.result().complete(posting);
+            return posting;
+        } catch (RuntimeException e) {
+            recent.remove(idempotencyKey, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Posting post(String key, Fingerprint fingerprint, Student student, long amountCentavos,
+                         String paymentType, String remarks) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Payment original = paymentRepository.findByIdempotencyKey(key);
+                if (original != null) {
+                    return replay(original, fingerprint);
+                }
+
+                Payment payment = new Payment();
+                payment.setIdempotencyKey(key);
+                payment.setTransactionId("WLK-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+                payment.setReferenceNumber(student.getStudentNumber());
+                payment.setAmountCentavos(amountCentavos);
+                payment.setPaymentMethod(paymentType + " (Over the Counter)");
+                payment.setRemarks(remarks);
+                payment.setPaymentDate(new Date());
+                // Flush now so a concurrent post of the same key fails here, before the ledger moves
+                paymentRepository.saveAndFlush(payment);
+                receiptSnapshotService.freeze(payment, student);
+
+                // Update the materialized ledger in this transaction; the status follows off the request thread
+                studentBalanceService.applyPayment(student.getId(), amountCentavos, remarks);
+                domainEventOutbox.publish(new DomainEvent.PaymentPosted(student.getId(), student.getStudentNumber(),
+                    payment.getTransactionId(), payment.getPaymentDate()));
+                return new Posting(payment.getTransactionId(), false);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another request committed the same key first
+            Payment original = paymentRepository.findByIdempotencyKey(key);
+            if (original == null) throw e;
+            return replay(original, fingerprint);
+        }
+    }
+
+    private static Posting replay(Payment original, Fingerprint fingerprint) {
+        if (!fingerprint.matches(original)) {
+            throw reused();
+        }
+        return new Posting(original.getTransactionId(), true);
+    }
+
+    private static IllegalArgumentException reused() {
+        return new IllegalArgumentException(
+            "This payment key was already used for a different payment; reload the form and post again.");
+    }
+
+    // Finished keys past their TTL; in-flight posts stay until they complete
+    @Scheduled(initialDelayString = "${enrollment.payments.idempotency-sweep-ms:60000}",
+               fixedDelayString = "${enrollment.payments.idempotency-sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        recent.values().removeIf(entry -> entry.expiresAt() <= now && entry.result().isDone());
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.enrollment.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import com.example.enrollment.entity.Payment;
+import com.example.enrollment.entity.ReceiptSnapshot;
+import com.example.enrollment.entity.Student;
+import com.example.enrollment.util.Money;
+import com.example.enrollment.util.NumberToWords;
+
+/**
+ * Frozen receipts.
+ *
+ * A walk-in post writes the receipt's fields (student name and program,
+ * amount in words, formatted date, term) to receipt_snapshots in the same
+ * transaction, so a reprint shows what the first print showed. The term
+ * is the one the payment date falls in (or the next one, for payments
+ * made before classes start), never whichever term is active at print
+ * time. Payments without a snapshot (posted before snapshots existed, or
+ * imported) are rendered from current data on every print and nothing is
+ * written, since printing is a GET. Snapshots are never updated, so their
+ * rendered HTML and ETag are cached in a bounded LRU and a reprint costs
+ * a map lookup, or a 304 when the browser already has it. Batch printing
+ * streams a period's receipts as one document.
+ */
+@Service
+public class ReceiptSnapshotService {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM-dd-yyyy");
+
+    private static final String INSERT_SQL =
+        "INSERT INTO receipt_snapshots (transaction_id, student_number, student_name, program, amount, " +
+        "amount_in_words, payment_method, payment_date, term, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    static final int FLUSH_EVERY = 50;
+
+    // Term of a payment: the first term not over by the payment date, so an early enrollment payment gets its term
+    private static final String TERM_OF_PAYMENT =
+        "(SELECT COALESCE(t.term_name, t.term_code) FROM academic_terms t " +
+        "WHERE t.end_date >= DATE(p.payment_date) ORDER BY t.start_date LIMIT 1)";
+
+    private static final String LIVE_SQL =
+        "SELECT p.amount, p.payment_method, p.payment_date, p.reference_number, " +
+        "s.last_name, s.first_name, s.program1, " + TERM_OF_PAYMENT + " AS payment_term " +
+        "FROM payments p LEFT JOIN students s ON s.student_number = p.reference_number " +
+        "WHERE p.transaction_id = ? LIMIT 1";
+
+    // Snapshot columns keep their own names; the live payment and student columns are aliased
+    private static final String BATCH_SQL =
+        "SELECT r.*, p.transaction_id AS payment_transaction_id, p.amount AS payment_amount, " +
+        "p.payment_method AS payment_payment_method, p.payment_date AS payment_payment_date, p.reference_number, " +
+        "s.last_name, s.first_name, s.program1, " + TERM_OF_PAYMENT + " AS payment_term " +
+        "FROM payments p " +
+        "LEFT JOIN receipt_snapshots r ON r.transaction_id = p.transaction_id " +
+        "LEFT JOIN students s ON s.student_number = p.reference_number " +
+        "WHERE p.payment_date >= ? AND p.payment_date < ? " +
+        "ORDER BY p.payment_date, p.id";
+
+    private static final RowMapper<ReceiptSnapshot> SNAPSHOT_MAPPER = (rs, i) -> {
+        ReceiptSnapshot s = new ReceiptSnapshot();
+        s.setReceiptId(rs.getLong("receipt_id"));
+        s.setTransactionId(rs.getString("transaction_id"));
+        s.setStudentNumber(rs.getString("student_number"));
+        s.setStudentName(rs.getString("student_name"));
+        s.setProgram(rs.getString("program"));
+        s.setAmount(rs.getBigDecimal("amount"));
+        s.setAmountInWords(rs.getString("amount_in_words"));
+        s.setPaymentMethod(rs.getString("payment_method"));
+        s.setPaymentDate(rs.getString("payment_date"));
+        s.setTerm(rs.getString("term"));
+        s.setCreatedAt(rs.getTimestamp("created_at"));
+        return s;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbc;
+    private final ITemplateEngine templateEngine;
+    private final Map<String, Rendered> rendered;
+
+    public ReceiptSnapshotService(JdbcTemplate jdbcTemplate, ITemplateEngine templateEngine,
+                                  @Value("${enrollment.receipts.cache-size:1000}") int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // MySQL Connector/J streams rows one at a time at this fetch size instead of buffering the result
+        this.streamingJdbc = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbc.setFetchSize(Integer.MIN_VALUE);
+        this.templateEngine = templateEngine;
+        // Access-ordered, so the least recently printed receipt goes first
+        this.rendered = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Rendered> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * A receipt page and the strong ETag of its content.
+     */
+    public record Rendered(String html, String etag) {}
+
+    /**
+     * Freezes the receipt of a payment just posted, in the caller's
+     * transaction.
+     */
+    public void freeze(Payment payment, Student student) {
+        insert(build(payment.getTransactionId(), student.getStudentNumber(),
+            studentName(student.getLastName(), student.getFirstName()), student.getProgram1(),
+            payment.getAmountCentavos(), payment.getPaymentMethod(), payment.getPaymentDate(),
+            termOf(payment.getPaymentDate())));
+    }
+
+    /**
+     * The rendered receipt, or null when there is no such payment.
+     */
+    public Rendered render(String transactionId) {
+        synchronized (rendered) {
+            Rendered cached = rendered.get(transactionId);
+            if (cached != null) return cached;
+        }
+
+        ReceiptSnapshot snapshot = find(transactionId);
+        if (snapshot == null) {
+            // Not frozen: rendered live and not cached, so it follows the current student data
+            ReceiptSnapshot live = findLive(transactionId);
+            return (live != null) ? renderPage(live) : null;
+        }
+
+        Rendered page = renderPage(snapshot);
+        synchronized (rendered) {
+            rendered.put(transactionId, page);
+        }
+        return page;
+    }
+
+    /**
+     * Writes one HTML document with a page per payment posted in
+     * [from, to), oldest first, and returns the number of receipts.
+     *
+     * Rows come from a streaming cursor and each receipt is rendered
+     * straight to the writer, so memory stays flat however long the range
+     * is. Frozen snapshots are printed as frozen; payments without one are
+     * printed from current data, as a single reprint would show them.
+     */
+    public int printBatch(Timestamp from, Timestamp to, Writer out) throws IOException {
+        out.write("<!DOCTYPE html>\n<html>\n");
+        templateEngine.process("receipt", Set.of("head"), new Context(), out);
+        out.write("\n<body class=\"batch\">\n");
+
+        int[] count = { 0 };
+        streamingJdbc.query(BATCH_SQL, rs -> {
+            ReceiptSnapshot snapshot;
+            if (rs.getObject("receipt_id") != null) {
+                snapshot = SNAPSHOT_MAPPER.mapRow(rs, count[0]);
+            } else {
+                snapshot = build(rs.getString("payment_transaction_id"), rs.getString("reference_number"),
+                    studentName(rs.getString("last_name"), rs.getString("first_name")), rs.getString("program1"),
+                    Money.of(rs.getBigDecimal("payment_amount")), rs.getString("payment_payment_method"),
+                    rs.getTimestamp("payment_payment_date"), rs.getString("payment_term"));
+            }
+            Context context = new Context();
+            context.setVariable("receipt", snapshot);
+            templateEngine.process("receipt", Set.of("paper"), context, out);
+            if (++count[0] % FLUSH_EVERY == 0) {
+                try {
+                    out.flush(); // let the browser start on the first pages
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }, from, to);
+
+        if (count[0] == 0) {
+            out.write("<p>No payments were posted in this period.</p>\n");
+        }
+        out.write("</body>\n</html>\n");
+        out.flush();
+        return count[0];
+    }
+
+    private ReceiptSnapshot find(String transactionId) {
+        List<ReceiptSnapshot> rows = jdbcTemplate.query(
+            "SELECT * FROM receipt_snapshots WHERE transaction_id = ?", SNAPSHOT_MAPPER, transactionId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Receipt of a payment posted without a snapshot, from current data
+    private ReceiptSnapshot findLive(String transactionId) {
+        List<ReceiptSnapshot> rows = jdbcTemplate.query(LIVE_SQL,
+            (rs, i) -> build(transactionId, rs.getString("reference_number"),
+                studentName(rs.getString("last_name"), rs.getString("first_name")), rs.getString("program1"),
+                Money.of(rs.getBigDecimal("amount")), rs.getString("payment_method"),
+                rs.getTimestamp("payment_date"), rs.getString("payment_term")),
+            transactionId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private Rendered renderPage(ReceiptSnapshot snapshot) {
+        Context context = new Context();
+        context.setVariable("receipt", snapshot);
+        String html = templateEngine.process("receipt", context);
+        return new Rendered(html, "\"" + DigestUtils.md5DigestAsHex(html.getBytes(StandardCharsets.UTF_8)) + "\"");
+    }
+
+    private static ReceiptSnapshot build(String transactionId, String studentNumber, String studentName, String program,
+                                         long amountCentavos, String paymentMethod, Date paymentDate, String term) {
+        ReceiptSnapshot s = new ReceiptSnapshot();
+        s.setTransactionId(transactionId);
+        s.setStudentNumber(studentNumber);
+        s.setStudentName(studentName);
+        s.setProgram(program);
+        s.setAmount(Money.toDecimal(amountCentavos));
+        s.setAmountInWords(NumberToWords.convertAmount(amountCentavos));
+        s.setPaymentMethod(paymentMethod);
+        s.setPaymentDate((paymentDate != null)
+            ? DATE_FORMAT.format(Instant.ofEpochMilli(paymentDate.getTime()).atZone(ZoneId.systemDefault()))
+            : null);
+        s.setTerm(term);
+        return s;
+    }
+
+    private void insert(ReceiptSnapshot s) {
+        jdbcTemplate.update(INSERT_SQL, s.getTransactionId(), s.getStudentNumber(), s.getStudentName(), s.getProgram(),
+            s.getAmount(), s.getAmountInWords(), s.getPaymentMethod(), s.getPaymentDate(), s.getTerm(),
+            new Timestamp(System.currentTimeMillis()));
+    }
+
+    // Name of the payment's term, as the receipt's school year line (same rule as TERM_OF_PAYMENT)
+    private String termOf(Date paymentDate) {
+        if (paymentDate == null) return null;
+        LocalDate day = Instant.ofEpochMilli(paymentDate.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+        List<String> terms = jdbcTemplate.queryForList(
+            "SELECT COALESCE(term_name, term_code) FROM academic_terms WHERE end_date >= ? " +
+            "ORDER BY start_date LIMIT 1", String.class, day);
+        return terms.isEmpty() ? null : terms.get(0);
+    }
+
+    private static String studentName(String lastName, String firstName) {
+        if (lastName == null && firstName == null) return null;
+        return lastName + ", " + firstName;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.enrollment.service;
+
+/**
+ * Published by {@link SeatReservationService} whenever a section's
+ * enrolled_count moves. Listeners see it only after the transaction that
+ * changed the counter commits.
+ */
+public record SeatCountChanged(int sectionId, int delta) {}
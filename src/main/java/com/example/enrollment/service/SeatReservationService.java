@@ -0,0 +1,132 @@
+package com.example.enrollment.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Seat counter for class sections.
+ *
+ * Each class_sections row carries an enrolled_count. A seat is taken with a
+ * single conditional UPDATE that only succeeds while the count is below
+ * capacity, so two cashiers can never both take the last seat: the database
+ * row lock serializes them and the loser sees zero rows updated.
+ *
+ * Every change is announced as a {@link SeatCountChanged} event so read
+ * models such as {@link OfferingsService} can follow the counter.
+ */
+@Service
+public class SeatReservationService {
+
+    // Same default the cashier terminal shows for sections without a capacity
+    static final int DEFAULT_CAPACITY = 40;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final ApplicationEventPublisher events;
+
+    public SeatReservationService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher events) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.events = events;
+    }
+
+    /**
+     * Atomically takes one seat. Returns false when the section is full
+     * (or does not exist).
+     */
+    public boolean reserve(Integer sectionId) {
+        if (sectionId == null) return false;
+        int updated = jdbcTemplate.update(
+            "UPDATE class_sections SET enrolled_count = enrolled_count + 1 " +
+            "WHERE section_id = ? AND enrolled_count < COALESCE(max_capacity, " + DEFAULT_CAPACITY + ")",
+            sectionId);
+        if (updated != 1) return false;
+        events.publishEvent(new SeatCountChanged(sectionId, 1));
+        return true;
+    }
+
+    /**
+     * Gives back seats after enlistments have been deleted.
+     */
+    public void release(Integer sectionId, int seats) {
+        if (sectionId == null || seats <= 0) return;
+        jdbcTemplate.update(
+            "UPDATE class_sections SET enrolled_count = GREATEST(enrolled_count - ?, 0) WHERE section_id = ?",
+            seats, sectionId);
+        events.publishEvent(new SeatCountChanged(sectionId, -seats));
+    }
+
+    public void release(Integer sectionId) {
+        release(sectionId, 1);
+    }
+
+    /**
+     * Gives back seats of several sections as one batch.
+     */
+    public void release(Map<Integer, Integer> seatsBySection) {
+        List<Object[]> args = new ArrayList<>();
+        seatsBySection.forEach((sectionId, seats) -> {
+            if (sectionId != null && seats != null && seats > 0) args.add(new Object[] { seats, sectionId });
+        });
+        if (args.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+            "UPDATE class_sections SET enrolled_count = GREATEST(enrolled_count - ?, 0) WHERE section_id = ?", args);
+        for (Object[] a : args) {
+            events.publishEvent(new SeatCountChanged((Integer) a[1], -(Integer) a[0]));
+        }
+    }
+
+    /**
+     * Locks the given sections' rows until the surrounding transaction ends
+     * and returns their free seats. Bulk writers allocate against this map
+     * and then call {@link #take(Map)} in the same transaction.
+     */
+    public Map<Integer, Integer> lockFreeSeats(Collection<Integer> sectionIds) {
+        Map<Integer, Integer> free = new HashMap<>();
+        if (sectionIds.isEmpty()) return free;
+        namedJdbc.query(
+            "SELECT section_id, COALESCE(max_capacity, " + DEFAULT_CAPACITY + ") - enrolled_count AS free " +
+            "FROM class_sections WHERE section_id IN (:sections) FOR UPDATE",
+            new MapSqlParameterSource("sections", sectionIds), rs -> {
+                free.put(rs.getInt("section_id"), Math.max(rs.getInt("free"), 0));
+            });
+        return free;
+    }
+
+    /**
+     * Takes seats allocated against {@link #lockFreeSeats(Collection)} as one batch.
+     */
+    public void take(Map<Integer, Integer> seatsBySection) {
+        List<Object[]> args = new ArrayList<>();
+        seatsBySection.forEach((sectionId, seats) -> {
+            if (seats != null && seats > 0) args.add(new Object[] { seats, sectionId });
+        });
+        if (args.isEmpty()) return;
+        jdbcTemplate.batchUpdate("UPDATE class_sections SET enrolled_count = enrolled_count + ? WHERE section_id = ?", args);
+        for (Object[] a : args) {
+            events.publishEvent(new SeatCountChanged((Integer) a[1], (Integer) a[0]));
+        }
+    }
+
+    /**
+     * Re-derives every counter from student_enlistments. Run at startup so
+     * the column is correct after it is first added or after manual edits.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recount() {
+        jdbcTemplate.update(
+            "UPDATE class_sections cs SET enrolled_count = " +
+            "(SELECT COUNT(*) FROM student_enlistments se WHERE se.section_id = cs.section_id)");
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.enrollment.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.enrollment.util.Money;
+
+/**
+ * Imports bank / online settlement files (CSV) into payments.
+ *
+ * The file is read line by line and handled in chunks, each chunk in its
+ * own transaction: transaction ids already seen in the file are dropped
+ * through an in-memory hash set, ids already in payments with one indexed
+ * IN lookup, reference numbers are matched to students with one IN
+ * lookup, and the accepted payments go in as one JDBC batch. The chunk's
+ * tuition totals are applied to student_balances in one batch and the
+ * ENROLLED / PENDING status of just the chunk's students is recomputed
+ * with one set-based UPDATE. Rejected lines are counted and the first
+ * few are reported with their line number.
+ *
+ * Expected header (any column order, case-insensitive):
+ * transaction_id, reference_number, amount, payment_date, and optionally
+ * payment_method and remarks.
+ */
+@Service
+public class SettlementImportService {
+
+    static final int CHUNK_SIZE = 2_000;
+    private static final int MAX_REPORTED_ERRORS = 50;
+    private static final String DEFAULT_METHOD = "Bank Settlement";
+
+    private static final List<DateTimeFormatter> DATE_TIME_FORMATS = List.of(
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]"),
+        DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm[:ss]"));
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+        DateTimeFormatter.ISO_LOCAL_DATE,
+        DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+
+    private static final String INSERT_SQL =
+        "INSERT INTO payments (transaction_id, reference_number, amount, payment_method, payment_date, remarks) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final StudentBalanceService studentBalanceService;
+    private final FeeScheduleService feeScheduleService;
+    private final StudentSearchIndex studentSearchIndex;
+
+    public SettlementImportService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   StudentBalanceService studentBalanceService,
+                                   FeeScheduleService feeScheduleService,
+                                   StudentSearchIndex studentSearchIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.studentBalanceService = studentBalanceService;
+        this.feeScheduleService = feeScheduleService;
+        this.studentSearchIndex = studentSearchIndex;
+    }
+
+    /**
+     * Counts for one imported file; errors holds the first rejected lines.
+     */
+    public record Report(int lines, int imported, int duplicatesInFile, int alreadyPosted, int unmatched,
+                         int invalid, int failedChunks, long elapsedMs, List<String> errors) {}
+
+    // Outcome of one committed chunk
+    private record ChunkResult(int imported, int alreadyPosted, int unmatched, List<String> rejected,
+                               Set<Long> statusChecked) {}
+
+    // One parsed settlement line
+    record Row(int line, String transactionId, String referenceNumber, long centavos,
+                       String method, Timestamp paidAt, String remarks) {}
+
+    private static final class Counts {
+        int lines, imported, duplicatesInFile, alreadyPosted, unmatched, invalid, failedChunks;
+        final List<String> errors = new ArrayList<>();
+
+        void reject(int line, String reason) {
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add("Line " + line + ": " + reason);
+        }
+    }
+
+    public Report importCsv(Reader source) throws IOException {
+        long started = System.nanoTime();
+        Counts counts = new Counts();
+        Set<String> seen = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(source, 1 << 16)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("The settlement file is empty.");
+            }
+            Map<String, Integer> columns = header(splitCsv(stripBom(headerLine)));
+
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            String text;
+            int lineNo = 1;
+            while ((text = reader.readLine()) != null) {
+                lineNo++;
+                if (text.isBlank()) continue;
+                counts.lines++;
+
+                Row row;
+                try {
+                    row = parse(lineNo, splitCsv(text), columns);
+                } catch (IllegalArgumentException e) {
+                    counts.invalid++;
+                    counts.reject(lineNo, e.getMessage());
+                    continue;
+                }
+                if (!seen.add(row.transactionId())) {
+                    counts.duplicatesInFile++;
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, counts);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) importChunk(chunk, counts);
+        }
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        System.out.println("Settlement Import: " + counts.lines + " line(s), " + counts.imported + " imported, " +
+            counts.duplicatesInFile + " duplicate(s) in file, " + counts.alreadyPosted + " already posted, " +
+            counts.unmatched + " unmatched, " + counts.invalid + " invalid in " + elapsedMs + " ms");
+        return new Report(counts.lines, counts.imported, counts.duplicatesInFile, counts.alreadyPosted,
+            counts.unmatched, counts.invalid, counts.failedChunks, elapsedMs, counts.errors);
+    }
+
+    private void importChunk(List<Row> chunk, Counts counts) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> writeChunk(chunk));
+        } catch (RuntimeException e) {
+            counts.failedChunks++;
+            counts.reject(chunk.get(0).line(), "chunk of " + chunk.size() + " rows failed and was rolled back: " + e.getMessage());
+            return;
+        }
+        // The status UPDATE bypassed JPA, so refresh those students in the search index
+        studentSearchIndex.reload(result.statusChecked());
+
+        // Counted only once the chunk has committed
+        counts.imported += result.imported();
+        counts.alreadyPosted += result.alreadyPosted();
+        counts.unmatched += result.unmatched();
+        for (String message : result.rejected()) {
+            if (counts.errors.size() < MAX_REPORTED_ERRORS) counts.errors.add(message);
+        }
+    }
+
+    private ChunkResult writeChunk(List<Row> chunk) {
+        List<String> transactionIds = new ArrayList<>(chunk.size());
+        Set<String> referenceNumbers = new HashSet<>();
+        for (Row row : chunk) {
+            transactionIds.add(row.transactionId());
+            referenceNumbers.add(row.referenceNumber());
+        }
+
+        // 1. Already posted (an earlier file or the cashier): one lookup on idx_payments_transaction
+        Set<String> posted = new HashSet<>(namedJdbc.queryForList(
+            "SELECT transaction_id FROM payments WHERE transaction_id IN (:ids)",
+            new MapSqlParameterSource("ids", transactionIds), String.class));
+
+        // 2. Reference number -> student id (MySQL matches case-insensitively)
+        Map<String, Long> students = new HashMap<>();
+        namedJdbc.query("SELECT id, student_number FROM students WHERE student_number IN (:numbers)",
+            new MapSqlParameterSource("numbers", referenceNumbers),
+            rs -> { students.put(rs.getString("student_number").toUpperCase(Locale.ROOT), rs.getLong("id")); });
+
+        // 3. Accepted rows as one batch, tuition totals per student
+        List<Object[]> inserts = new ArrayList<>(chunk.size());
+        Map<Long, Long> tuition = new HashMap<>();
+        int alreadyPosted = 0, unmatched = 0;
+        List<String> rejected = new ArrayList<>();
+        for (Row row : chunk) {
+            if (posted.contains(row.transactionId())) {
+                alreadyPosted++;
+                continue;
+            }
+            Long studentId = students.get(row.referenceNumber().toUpperCase(Locale.ROOT));
+            if (studentId == null) {
+                unmatched++;
+                rejected.add("Line " + row.line() + ": no student with number " + row.referenceNumber());
+                continue;
+            }
+            inserts.add(new Object[] { row.transactionId(), row.referenceNumber(), Money.toDecimal(row.centavos()),
+                row.method(), row.paidAt(), row.remarks() });
+            if (StudentLedgerSnapshot.isTuitionPayment(row.remarks())) {
+                tuition.merge(studentId, row.centavos(), Long::sum);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+
+        // 4. Ledger totals and statuses for just the students this chunk paid for
+        studentBalanceService.applyPayments(tuition);
+        if (!tuition.isEmpty()) {
+            namedJdbc.update(
+                "UPDATE students s JOIN student_balances b ON b.student_id = s.id " +
+                "SET s.applicant_status = CASE WHEN b.tuition_paid >= :downpayment THEN 'ENROLLED' ELSE 'PENDING' END " +
+                "WHERE s.id IN (:ids)",
+                new MapSqlParameterSource()
+                    .addValue("downpayment", Money.toDecimal(feeScheduleService.current().downpayment()))
+                    .addValue("ids", tuition.keySet()));
+        }
+
+        return new ChunkResult(inserts.size(), alreadyPosted, unmatched, rejected, tuition.keySet());
+    }
+
+    // --- PARSING ---
+
+    static Map<String, Integer> header(List<String> names) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT).replace(' ', '_'), i);
+        }
+        for (String required : List.of("transaction_id", "reference_number", "amount", "payment_date")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Settlement file is missing the " + required + " column.");
+            }
+        }
+        return columns;
+    }
+
+    static Row parse(int line, List<String> fields, Map<String, Integer> columns) {
+        String transactionId = field(fields, columns, "transaction_id");
+        String referenceNumber = field(fields, columns, "reference_number");
+        String amountText = field(fields, columns, "amount");
+        String dateText = field(fields, columns, "payment_date");
+        if (transactionId == null || referenceNumber == null || amountText == null || dateText == null) {
+            throw new IllegalArgumentException("missing transaction id, reference number, amount or payment date");
+        }
+        if (transactionId.length() > 255) {
+            throw new IllegalArgumentException("transaction id is too long");
+        }
+
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(amountText.replace(",", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount '" + amountText + "' is not a number");
+        }
+        if (amount.signum() <= 0 || amount.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("amount " + amountText + " must be positive with at most two decimals");
+        }
+
+        String method = field(fields, columns, "payment_method");
+        return new Row(line, transactionId, referenceNumber, Money.of(amount),
+            (method != null) ? method : DEFAULT_METHOD, Timestamp.valueOf(parseDate(dateText)),
+            field(fields, columns, "remarks"));
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    static LocalDateTime parseDate(String text) {
+        for (DateTimeFormatter format : DATE_TIME_FORMATS) {
+            try {
+                return LocalDateTime.parse(text, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(text, format).atStartOfDay();
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("payment date '" + text + "' is not a recognised date");
+    }
+
+    private static String stripBom(String line) {
+        return (!line.isEmpty() && line.charAt(0) == '\uFEFF') ? line.substring(1) : line;
+    }
+
+    /**
+     * Splits one CSV line: comma separated, fields optionally wrapped in
+     * double quotes with "" for a literal quote. Settlement files keep
+     * each record on one line, so quoted line breaks are not supported.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
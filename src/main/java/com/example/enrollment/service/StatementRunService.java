@@ -0,0 +1,276 @@
+package com.example.enrollment.service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+
+import com.example.enrollment.util.Money;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Term-wide statement job: every student enlisted in a term gets a
+ * student_statements row with their assessment, tuition paid, balance and
+ * installment position as of a cut-off date.
+ *
+ * {@link #start} records the run and returns its id at once; the run
+ * itself continues on a background thread and its progress is read back
+ * with {@link #status}. That thread pages through the term's student ids
+ * by keyset and hands each chunk to a virtual thread, which loads the
+ * chunk's units and payments with one set-based query, prices it against
+ * the term's compiled {@link FeePlan} and writes the rows as one JDBC
+ * batch. Each finished chunk adds its students (or its failure) to the
+ * run's counters, so a RUNNING run shows how far it has got. A semaphore
+ * caps the chunks in flight, so memory stays at a few chunks however many
+ * students the term has. A failed chunk is logged and
+ * counted and the rest of the run carries on; if the run itself breaks
+ * (e.g. paging the ids fails) it is marked FAILED with the error.
+ *
+ * Tuition paid counts payments from the day after the previous term ended
+ * (so enrollment payments made before classes start are included) up to
+ * the cut-off.
+ */
+@Service
+public class StatementRunService {
+
+    static final int CHUNK_SIZE = 1_000;
+
+    private static final String CHUNK_SQL =
+        "SELECT s.id, s.student_number, COALESCE(u.units, 0) AS units, COALESCE(p.paid, 0) AS paid " +
+        "FROM students s " +
+        "LEFT JOIN (SELECT se.student_id, SUM(c.credit_units) AS units FROM student_enlistments se " +
+        "           JOIN courses c ON se.course_id = c.course_id " +
+        "           JOIN class_sections cs ON se.section_id = cs.section_id " +
+        "           WHERE cs.term_id = :term AND se.student_id IN (:ids) GROUP BY se.student_id) u ON u.student_id = s.id " +
+        "LEFT JOIN (SELECT pay.reference_number, SUM(pay.amount) AS paid FROM payments pay " +
+        "           JOIN students ps ON ps.student_number = pay.reference_number " +
+        "           WHERE ps.id IN (:ids) AND pay.payment_date >= :since AND pay.payment_date < :before AND " +
+        StudentBalanceService.TUITION_FILTER +
+        "           GROUP BY pay.reference_number) p ON p.reference_number = s.student_number " +
+        "WHERE s.id IN (:ids)";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO student_statements (run_id, student_id, student_number, total_units, assessment, tuition_paid, " +
+        "balance, amount_due, past_due, installments_due, installments_paid) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final FeeScheduleService feeScheduleService;
+    private final int parallelism;
+
+    // Runs the jobs; each job fans its chunks out on virtual threads of its own
+    private final ExecutorService runner = Executors.newVirtualThreadPerTaskExecutor();
+
+    public StatementRunService(JdbcTemplate jdbcTemplate, FeeScheduleService feeScheduleService,
+                               @Value("${enrollment.statements.parallelism:8}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.feeScheduleService = feeScheduleService;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Progress or outcome of one run, as recorded in statement_runs.
+     */
+    public record RunStatus(long runId, int termId, LocalDate cutoff, String status, int students,
+                            int failedChunks, Long elapsedMs, Double studentsPerSecond, String error) {}
+
+    // Everything a chunk needs that is fixed for the run
+    private record RunContext(long runId, int termId, FeePlan plan, int installmentsDue, Timestamp since, Timestamp before) {}
+
+    /**
+     * Records a run for every student enlisted in the term and starts it in
+     * the background.
+     *
+     * @return the run id, for {@link #status}
+     */
+    public long start(int termId, LocalDate cutoff) {
+        List<LocalDate> previousEnd = jdbcTemplate.query(
+            "SELECT (SELECT MAX(p.end_date) FROM academic_terms p WHERE p.end_date < t.start_date) AS previous_end " +
+            "FROM academic_terms t WHERE t.term_id = ?",
+            (rs, i) -> {
+                Date end = rs.getDate("previous_end");
+                return (end != null) ? end.toLocalDate() : null;
+            }, termId);
+        if (previousEnd.isEmpty()) {
+            throw new IllegalArgumentException("Term " + termId + " does not exist.");
+        }
+
+        FeePlan plan = feeScheduleService.forTerm(termId);
+        LocalDate since = (previousEnd.get(0) != null) ? previousEnd.get(0).plusDays(1) : LocalDate.of(1970, 1, 1);
+        RunContext context = new RunContext(startRun(termId, cutoff), termId, plan, plan.installmentsDueBy(cutoff),
+            Timestamp.valueOf(since.atStartOfDay()), Timestamp.valueOf(cutoff.plusDays(1).atStartOfDay()));
+
+        try {
+            runner.execute(() -> {
+                try {
+                    run(context);
+                } catch (RuntimeException e) {
+                    failRun(context.runId(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            failRun(context.runId(), e); // shutting down
+            throw e;
+        }
+        return context.runId();
+    }
+
+    /**
+     * The run's row, or null when there is no such run.
+     */
+    public RunStatus status(long runId) {
+        List<RunStatus> rows = jdbcTemplate.query(
+            "SELECT run_id, term_id, cutoff_date, status, students, failed_chunks, elapsed_ms, error " +
+            "FROM statement_runs WHERE run_id = ?",
+            (rs, i) -> {
+                int students = rs.getInt("students");
+                long elapsed = rs.getLong("elapsed_ms");
+                Long elapsedMs = rs.wasNull() ? null : elapsed;
+                return new RunStatus(rs.getLong("run_id"), rs.getInt("term_id"), rs.getDate("cutoff_date").toLocalDate(),
+                    rs.getString("status"), students, rs.getInt("failed_chunks"), elapsedMs,
+                    (elapsedMs != null && elapsedMs > 0) ? students * 1000.0 / elapsedMs : null, rs.getString("error"));
+            }, runId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void run(RunContext context) {
+        long started = System.nanoTime();
+        int termId = context.termId();
+        AtomicInteger students = new AtomicInteger();
+        AtomicInteger failedChunks = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(parallelism);
+        int chunks = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = nextChunk(termId, afterId);
+                if (ids.isEmpty()) break;
+                afterId = ids.get(ids.size() - 1);
+                chunks++;
+
+                inFlight.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        int written = writeChunk(context, ids);
+                        students.addAndGet(written);
+                        recordProgress(context.runId(), written, 0);
+                    } catch (RuntimeException e) {
+                        failedChunks.incrementAndGet();
+                        System.out.println("Statement Run " + context.runId() + ": chunk of " + ids.size() +
+                            " students from id " + ids.get(0) + " failed: " + e.getMessage());
+                        recordProgress(context.runId(), 0, 1);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } // close() waits for the chunks still running
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        finishRun(context.runId(), students.get(), failedChunks.get(), elapsedMs);
+
+        System.out.println("Statement Run " + context.runId() + ": " + students.get() + " students in " +
+            chunks + " chunk(s), " + elapsedMs + " ms (" + Math.round(students.get() * 1000.0 / elapsedMs) +
+            " students/s), " + failedChunks.get() + " failed chunk(s)");
+    }
+
+    // Next page of the term's student ids, ascending
+    private List<Long> nextChunk(int termId, long afterId) {
+        return jdbcTemplate.queryForList(
+            "SELECT DISTINCT se.student_id FROM student_enlistments se " +
+            "JOIN class_sections cs ON se.section_id = cs.section_id " +
+            "WHERE cs.term_id = ? AND se.student_id > ? ORDER BY se.student_id LIMIT ?",
+            Long.class, termId, afterId, CHUNK_SIZE);
+    }
+
+    private int writeChunk(RunContext context, List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("ids", ids)
+            .addValue("term", context.termId())
+            .addValue("since", context.since())
+            .addValue("before", context.before());
+        FeePlan plan = context.plan();
+
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        namedJdbc.query(CHUNK_SQL, params, rs -> {
+            int units = rs.getInt("units");
+            long paid = Money.of(rs.getBigDecimal("paid"));
+            long assessment = plan.assessment(units);
+            long amountDue = (units > 0) ? plan.amountDue(units, context.installmentsDue()) : 0;
+            rows.add(new Object[] {
+                context.runId(), rs.getLong("id"), rs.getString("student_number"), units,
+                Money.toDecimal(assessment), Money.toDecimal(paid), Money.toDecimal(assessment - paid),
+                Money.toDecimal(amountDue), Money.toDecimal(Math.max(0, amountDue - paid)),
+                context.installmentsDue(), plan.installmentsCovered(units, paid)
+            });
+        });
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        return rows.size();
+    }
+
+    private long startRun(int termId, LocalDate cutoff) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "INSERT INTO statement_runs (term_id, cutoff_date, status, students, failed_chunks, started_at) " +
+                "VALUES (?, ?, 'RUNNING', 0, 0, NOW())", new String[] { "run_id" });
+            ps.setInt(1, termId);
+            ps.setDate(2, Date.valueOf(cutoff));
+            return ps;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+
+    // Live counters for status(); finishRun writes the final totals either way
+    private void recordProgress(long runId, int students, int failedChunks) {
+        try {
+            jdbcTemplate.update(
+                "UPDATE statement_runs SET students = students + ?, failed_chunks = failed_chunks + ? WHERE run_id = ?",
+                students, failedChunks, runId);
+        } catch (RuntimeException e) {
+            System.out.println("Statement Run " + runId + ": could not record progress: " + e.getMessage());
+        }
+    }
+
+    private void finishRun(long runId, int students, int failedChunks, long elapsedMs) {
+        jdbcTemplate.update(
+            "UPDATE statement_runs SET status = ?, students = ?, failed_chunks = ?, elapsed_ms = ?, finished_at = NOW() " +
+            "WHERE run_id = ?",
+            (failedChunks == 0) ? "COMPLETED" : "COMPLETED_WITH_ERRORS", students, failedChunks, elapsedMs, runId);
+    }
+
+    private void failRun(long runId, RuntimeException e) {
+        System.out.println("Statement Run " + runId + ": failed: " + e.getMessage());
+        String error = String.valueOf(e.getMessage());
+        try {
+            jdbcTemplate.update(
+                "UPDATE statement_runs SET status = 'FAILED', error = ?, finished_at = NOW() WHERE run_id = ?",
+                (error.length() > 500) ? error.substring(0, 500) : error, runId);
+        } catch (RuntimeException again) {
+            System.out.println("Statement Run " + runId + ": could not record the failure: " + again.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow(); // a run cut short stays RUNNING and can simply be started again
+    }
+}
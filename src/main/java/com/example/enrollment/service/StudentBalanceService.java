@@ -0,0 +1,197 @@
+package com.example.enrollment.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.enrollment.util.Money;
+
+/**
+ * Maintains the student_balances ledger incrementally.
+ *
+ * Every write path that changes a student's units or tuition payments calls
+ * one of the apply* methods inside its own transaction, so the ledger row
+ * commits or rolls back together with the raw rows. Reads are a single
+ * primary-key lookup; a nightly reconciliation compares the ledger against
+ * the raw tables and repairs any drift.
+ */
+@Service
+public class StudentBalanceService {
+
+    // Same tuition filter as the ledger screens (blank remarks count as tuition)
+    static final String TUITION_FILTER =
+        "(remarks = 'Tuition Fee' OR remarks IS NULL OR remarks = '')";
+
+    private static final String REBUILD_SQL =
+        "INSERT INTO student_balances (student_id, student_number, total_units, tuition_paid, updated_at) " +
+        "SELECT s.id, s.student_number, " +
+        "  (SELECT COALESCE(SUM(c.credit_units), 0) FROM student_enlistments se " +
+        "   JOIN courses c ON se.course_id = c.course_id WHERE se.student_id = s.id), " +
+        "  (SELECT COALESCE(SUM(p.amount), 0) FROM payments p " +
+        "   WHERE p.reference_number = s.student_number AND " + TUITION_FILTER + "), " +
+        "  NOW() " +
+        "FROM students s WHERE s.id = ? " +
+        "ON DUPLICATE KEY UPDATE student_number = VALUES(student_number), " +
+        "total_units = VALUES(total_units), tuition_paid = VALUES(tuition_paid), updated_at = NOW()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StudentBalanceService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Current materialized totals for one student; tuitionPaid in centavos.
+     */
+    public record Balance(int totalUnits, long tuitionPaid) {}
+
+    private static final RowMapper<Balance> BALANCE_MAPPER =
+        (rs, i) -> new Balance(rs.getInt("total_units"), Money.of(rs.getBigDecimal("tuition_paid")));
+
+    /**
+     * Reads the ledger row by primary key, seeding it from the raw tables
+     * the first time a student is looked up.
+     */
+    @Transactional
+    public Balance find(Long studentId) {
+        List<Balance> rows = jdbcTemplate.query(
+            "SELECT total_units, tuition_paid FROM student_balances WHERE student_id = ?",
+            BALANCE_MAPPER, studentId);
+        if (!rows.isEmpty()) {
+            return rows.get(0);
+        }
+        return rebuild(studentId);
+    }
+
+    /**
+     * Adds (or with a negative delta removes) credit units after the
+     * enlistment rows have been written in the caller's transaction.
+     */
+    @Transactional
+    public void applyUnits(Long studentId, int unitDelta) {
+        if (studentId == null || unitDelta == 0) return;
+        int updated = jdbcTemplate.update(
+            "UPDATE student_balances SET total_units = total_units + ?, updated_at = NOW() WHERE student_id = ?",
+            unitDelta, studentId);
+        if (updated == 0) {
+            // No ledger row yet: the raw tables already include this change
+            rebuild(studentId);
+        }
+    }
+
+    /**
+     * Batch form of {@link #applyUnits(Long, int)} for set-based writers
+     * (waitlist fill, block enlistment): one JDBC batch, then a rebuild for
+     * any student that had no ledger row yet.
+     */
+    @Transactional
+    public void applyUnits(Map<Long, Integer> unitDeltas) {
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        unitDeltas.forEach((studentId, delta) -> {
+            if (studentId != null && delta != null && delta != 0) {
+                ids.add(studentId);
+                args.add(new Object[] { delta, studentId });
+            }
+        });
+        if (args.isEmpty()) return;
+
+        int[] updated = jdbcTemplate.batchUpdate(
+            "UPDATE student_balances SET total_units = total_units + ?, updated_at = NOW() WHERE student_id = ?", args);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) rebuild(ids.get(i));
+        }
+    }
+
+    /**
+     * Records a payment after it has been inserted in the caller's
+     * transaction and returns the updated totals.
+     */
+    @Transactional
+    public Balance applyPayment(Long studentId, long amountCentavos, String remarks) {
+        if (StudentLedgerSnapshot.isTuitionPayment(remarks) && amountCentavos != 0) {
+            int updated = jdbcTemplate.update(
+                "UPDATE student_balances SET tuition_paid = tuition_paid + ?, updated_at = NOW() WHERE student_id = ?",
+                Money.toDecimal(amountCentavos), studentId);
+            if (updated == 0) {
+                return rebuild(studentId);
+            }
+        }
+        return find(studentId);
+    }
+
+    /**
+     * Batch form of {@link #applyPayment} for imports: adds each student's
+     * tuition payments (centavos) in one JDBC batch, rebuilding any student
+     * that had no ledger row yet.
+     */
+    @Transactional
+    public void applyPayments(Map<Long, Long> tuitionByStudent) {
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        tuitionByStudent.forEach((studentId, centavos) -> {
+            if (studentId != null && centavos != null && centavos != 0) {
+                ids.add(studentId);
+                args.add(new Object[] { Money.toDecimal(centavos), studentId });
+            }
+        });
+        if (args.isEmpty()) return;
+
+        int[] updated = jdbcTemplate.batchUpdate(
+            "UPDATE student_balances SET tuition_paid = tuition_paid + ?, updated_at = NOW() WHERE student_id = ?", args);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) rebuild(ids.get(i));
+        }
+    }
+
+    /**
+     * Recomputes one student's row from student_enlistments and payments.
+     */
+    @Transactional
+    public Balance rebuild(Long studentId) {
+        jdbcTemplate.update(REBUILD_SQL, studentId);
+        List<Balance> rows = jdbcTemplate.query(
+            "SELECT total_units, tuition_paid FROM student_balances WHERE student_id = ?",
+            BALANCE_MAPPER, studentId);
+        return rows.isEmpty() ? new Balance(0, 0) : rows.get(0);
+    }
+
+    /**
+     * Compares every ledger row against the raw tables with one set-based
+     * query and rebuilds the rows that are missing or have drifted.
+     *
+     * @return number of rows repaired
+     */
+    @Scheduled(cron = "${enrollment.balances.reconcile-cron:0 30 2 * * *}")
+    public int reconcile() {
+        List<Map<String, Object>> drift = jdbcTemplate.queryForList(
+            "SELECT s.id, s.student_number, COALESCE(u.units, 0) AS units, COALESCE(p.paid, 0) AS paid, " +
+            "b.total_units, b.tuition_paid " +
+            "FROM students s " +
+            "LEFT JOIN (SELECT se.student_id, SUM(c.credit_units) AS units FROM student_enlistments se " +
+            "           JOIN courses c ON se.course_id = c.course_id GROUP BY se.student_id) u ON u.student_id = s.id " +
+            "LEFT JOIN (SELECT reference_number, SUM(amount) AS paid FROM payments " +
+            "           WHERE " + TUITION_FILTER + " GROUP BY reference_number) p ON p.reference_number = s.student_number " +
+            "LEFT JOIN student_balances b ON b.student_id = s.id " +
+            "WHERE b.student_id IS NULL " +
+            "OR b.total_units <> COALESCE(u.units, 0) " +
+            "OR b.tuition_paid <> COALESCE(p.paid, 0)");
+
+        for (Map<String, Object> row : drift) {
+            Long studentId = ((Number) row.get("id")).longValue();
+            if (row.get("total_units") != null) {
+                System.out.println("Balance Reconcile: Student " + row.get("student_number") +
+                    " ledger (" + row.get("total_units") + " units, " + row.get("tuition_paid") + " paid)" +
+                    " != raw (" + row.get("units") + " units, " + row.get("paid") + " paid)");
+            }
+            rebuild(studentId);
+        }
+        return drift.size();
+    }
+}
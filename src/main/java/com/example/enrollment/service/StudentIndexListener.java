@@ -0,0 +1,52 @@
+package com.example.enrollment.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.enrollment.entity.Student;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that keeps {@link StudentSearchIndex} in step with
+ * saved students. Changes are applied after the surrounding transaction
+ * commits, so rolled-back saves never show up in search results.
+ */
+@Component
+public class StudentIndexListener {
+
+    private final ObjectProvider<StudentSearchIndex> searchIndex;
+
+    public StudentIndexListener(ObjectProvider<StudentSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Student student) {
+        afterCommit(() -> searchIndex.ifAvailable(index -> index.put(student)));
+    }
+
+    @PostRemove
+    public void onRemove(Student student) {
+        Long id = student.getId();
+        afterCommit(() -> searchIndex.ifAvailable(index -> index.remove(id)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.enrollment.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the ledger screens need about one student, loaded by
+ * {@link FinancialService#loadLedger} with two queries on one connection.
+ *
+ * @param totalUnits       sum of credit units over the enlisted subjects
+ * @param tuitionPaid      sum of payments that count toward tuition, in centavos
+ * @param enlistedSubjects enlisted subject rows (enlistment_id, course_code, course_title, credit_units, schedule)
+ * @param paymentHistory   every payment row, newest first (transaction_id, amount, payment_method, payment_date, remarks)
+ */
+public record StudentLedgerSnapshot(int totalUnits,
+                                    long tuitionPaid,
+                                    List<Map<String, Object>> enlistedSubjects,
+                                    List<Map<String, Object>> paymentHistory) {
+
+    /**
+     * Same rule as the old SQL filter: blank remarks or "Tuition Fee"
+     * (MySQL compares case-insensitively and ignores trailing spaces).
+     */
+    static boolean isTuitionPayment(Object remarks) {
+        if (remarks == null) return true;
+        String r = remarks.toString().stripTrailing();
+        return r.isEmpty() || r.equalsIgnoreCase("Tuition Fee");
+    }
+}
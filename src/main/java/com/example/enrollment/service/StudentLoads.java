@@ -0,0 +1,64 @@
+package com.example.enrollment.service;
+
+import java.sql.Time;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.example.enrollment.util.WeeklyTimetable;
+
+/**
+ * Current load of many students at once: enlisted units, enlisted courses
+ * and weekly timetable. Two set-based queries regardless of how many
+ * students are asked for; shared by the waitlist and block enlistment.
+ */
+final class StudentLoads {
+
+    static final class Load {
+        final WeeklyTimetable timetable = new WeeklyTimetable();
+        final Set<Integer> courses = new HashSet<>();
+        int units;
+    }
+
+    private StudentLoads() {}
+
+    /**
+     * One entry per requested id (students without enlistments get an empty load).
+     */
+    static Map<Long, Load> load(NamedParameterJdbcTemplate namedJdbc, Collection<Long> studentIds) {
+        Map<Long, Load> loads = new HashMap<>();
+        for (Long id : studentIds) loads.put(id, new Load());
+        if (loads.isEmpty()) return loads;
+
+        MapSqlParameterSource params = new MapSqlParameterSource("students", loads.keySet());
+        namedJdbc.query(
+            "SELECT se.student_id, se.course_id, COALESCE(c.credit_units, 0) AS credit_units " +
+            "FROM student_enlistments se JOIN courses c ON se.course_id = c.course_id " +
+            "WHERE se.student_id IN (:students)",
+            params, rs -> {
+                Load load = loads.get(rs.getLong("student_id"));
+                load.units += rs.getInt("credit_units");
+                load.courses.add(rs.getInt("course_id"));
+            });
+        namedJdbc.query(
+            "SELECT se.student_id, sch.day_of_week, sch.start_time, sch.end_time " +
+            "FROM student_enlistments se JOIN class_schedules sch ON se.section_id = sch.section_id " +
+            "WHERE se.student_id IN (:students)",
+            params, rs -> {
+                markMeeting(loads.get(rs.getLong("student_id")).timetable, rs.getObject("day_of_week"),
+                    rs.getTime("start_time"), rs.getTime("end_time"));
+            });
+        return loads;
+    }
+
+    static void markMeeting(WeeklyTimetable timetable, Object day, Time start, Time end) {
+        timetable.mark((day != null) ? ((Number) day).intValue() : null,
+            (start != null) ? start.toLocalTime() : null,
+            (end != null) ? end.toLocalTime() : null);
+    }
+}
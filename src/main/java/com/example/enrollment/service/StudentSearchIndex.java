@@ -0,0 +1,365 @@
+package com.example.enrollment.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.enrollment.entity.Student;
+
+/**
+ * In-memory trigram index over student number, first name and last name.
+ *
+ * Replaces the LIKE '%x%' scans used by the dashboard, walk-in and cashier
+ * searches. Each student occupies a slot; every trigram of its fields has a
+ * sorted posting list of slots. A query intersects the posting lists of its
+ * trigrams, verifies the candidates and ranks them (exact number first, then
+ * prefixes, then substring matches).
+ *
+ * The index is built from the students table on startup, kept current by
+ * {@link StudentIndexListener} when students are saved through JPA, and
+ * rebuilt periodically to pick up rows written outside the application.
+ * Changes made while a rebuild is reading the table are replayed onto the
+ * fresh segment before it replaces the old one, so none are lost.
+ */
+@Service
+public class StudentSearchIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segment segment = new Segment();
+
+    // Students put (or removed, as null) while a rebuild is reading; guarded by the write lock
+    private Map<Long, Entry> changedDuringRebuild;
+
+    public StudentSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The fields the list screens need, so hits render without a database read.
+     */
+    public record Entry(Long id, String studentNumber, String lastName, String firstName,
+                        String program1, String applicantStatus) {
+
+        public Map<String, Object> toRow() {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", id);
+            row.put("studentNumber", studentNumber);
+            row.put("lastName", lastName);
+            row.put("firstName", firstName);
+            row.put("program1", program1);
+            row.put("applicantStatus", applicantStatus);
+            return row;
+        }
+    }
+
+    /**
+     * One page of ranked hits and the total number of matches.
+     */
+    public record Result(List<Entry> hits, int total) {}
+
+    // --- BUILD & MAINTENANCE ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${enrollment.search.rebuild-interval-ms:900000}",
+               fixedDelayString = "${enrollment.search.rebuild-interval-ms:900000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = new Segment();
+        boolean loaded = false;
+        try {
+            jdbcTemplate.query(
+                "SELECT id, student_number, last_name, first_name, program1, applicant_status FROM students",
+                rs -> {
+                    fresh.add(new Entry(rs.getLong("id"), rs.getString("student_number"),
+                        rs.getString("last_name"), rs.getString("first_name"),
+                        rs.getString("program1"), rs.getString("applicant_status")));
+                });
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    changedDuringRebuild.forEach((id, entry) -> {
+                        fresh.remove(id);
+                        if (entry != null) fresh.add(entry);
+                    });
+                    segment = fresh;
+                }
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void put(Student student) {
+        if (student == null || student.getId() == null) return;
+        Entry entry = new Entry(student.getId(), student.getStudentNumber(), student.getLastName(),
+            student.getFirstName(), student.getProgram1(), student.getApplicantStatus());
+
+        lock.writeLock().lock();
+        try {
+            apply(entry.id(), entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads a few students after a set-based write that bypassed JPA
+     * (e.g. status changes from a settlement import).
+     */
+    public void reload(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) return;
+        List<Entry> fresh = new NamedParameterJdbcTemplate(jdbcTemplate).query(
+            "SELECT id, student_number, last_name, first_name, program1, applicant_status FROM students WHERE id IN (:ids)",
+            new MapSqlParameterSource("ids", studentIds),
+            (rs, i) -> new Entry(rs.getLong("id"), rs.getString("student_number"),
+                rs.getString("last_name"), rs.getString("first_name"),
+                rs.getString("program1"), rs.getString("applicant_status")));
+
+        lock.writeLock().lock();
+        try {
+            for (Entry entry : fresh) {
+                apply(entry.id(), entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long studentId) {
+        if (studentId == null) return;
+        lock.writeLock().lock();
+        try {
+            apply(studentId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock; a null entry removes the student
+    private void apply(Long id, Entry entry) {
+        segment.remove(id);
+        if (entry != null) segment.add(entry);
+        if (changedDuringRebuild != null) changedDuringRebuild.put(id, entry);
+    }
+
+    // --- QUERIES ---
+
+    /**
+     * Ranked, paginated matches for a student number or name fragment.
+     */
+    public Result search(String keyword, int offset, int limit) {
+        String q = normalize(keyword);
+        if (q.isEmpty() || limit <= 0) return new Result(List.of(), 0);
+
+        lock.readLock().lock();
+        try {
+            return segment.search(q, Math.max(offset, 0), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The top-ranked match, or null. Used where a screen works on one student.
+     */
+    public Long bestMatch(String keyword) {
+        List<Entry> hits = search(keyword, 0, 1).hits();
+        return hits.isEmpty() ? null : hits.get(0).id();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String value) {
+        return (value == null) ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Packs three chars into one key (chars are 16 bits each)
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    /**
+     * Slot storage plus posting lists. Updates append a new slot and
+     * tombstone the old one; a rebuild compacts everything.
+     */
+    private static final class Segment {
+        private Entry[] entries = new Entry[1024];
+        private String[][] fields = new String[1024][];
+        private int slots;
+        private int live;
+
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+
+        void add(Entry entry) {
+            if (slots == entries.length) {
+                entries = Arrays.copyOf(entries, slots * 2);
+                fields = Arrays.copyOf(fields, slots * 2);
+            }
+            int slot = slots++;
+            String[] f = { normalize(entry.studentNumber()), normalize(entry.lastName()), normalize(entry.firstName()) };
+            entries[slot] = entry;
+            fields[slot] = f;
+            slotById.put(entry.id(), slot);
+            live++;
+
+            for (String field : f) {
+                for (int i = 0; i + 3 <= field.length(); i++) {
+                    addPosting(trigram(field, i), slot);
+                }
+            }
+        }
+
+        void remove(Long id) {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                entries[slot] = null;
+                live--;
+            }
+        }
+
+        private void addPosting(long key, int slot) {
+            Postings list = postings.computeIfAbsent(key, k -> new Postings());
+            int n = list.size;
+            if (n > 0 && list.slots[n - 1] == slot) {
+                return; // trigram repeated within this student's fields
+            }
+            if (n == list.slots.length) {
+                list.slots = Arrays.copyOf(list.slots, n * 2);
+            }
+            list.slots[n] = slot;
+            list.size = n + 1;
+        }
+
+        Result search(String q, int offset, int limit) {
+            List<Integer> matches = new ArrayList<>();
+            List<Integer> scores = new ArrayList<>();
+
+            if (q.length() < 3) {
+                // Too short for trigrams: a linear scan over the in-memory fields
+                for (int slot = 0; slot < slots; slot++) {
+                    collect(slot, q, matches, scores);
+                }
+            } else {
+                int[] candidates = intersect(q);
+                for (int slot : candidates) {
+                    collect(slot, q, matches, scores);
+                }
+            }
+
+            Integer[] order = new Integer[matches.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, Comparator
+                .<Integer>comparingInt(i -> -scores.get(i))
+                .thenComparing(i -> fields[matches.get(i)][1])
+                .thenComparingInt(i -> matches.get(i)));
+
+            List<Entry> hits = new ArrayList<>(Math.min(limit, order.length));
+            for (int i = offset; i < order.length && hits.size() < limit; i++) {
+                hits.add(entries[matches.get(order[i])]);
+            }
+            return new Result(hits, order.length);
+        }
+
+        private void collect(int slot, String q, List<Integer> matches, List<Integer> scores) {
+            if (entries[slot] == null) return;
+            int score = score(fields[slot], q);
+            if (score > 0) {
+                matches.add(slot);
+                scores.add(score);
+            }
+        }
+
+        // Sorted-list intersection, starting from the rarest trigram
+        private int[] intersect(String q) {
+            int grams = q.length() - 2;
+            long[] keys = new long[grams];
+            for (int i = 0; i < grams; i++) keys[i] = trigram(q, i);
+
+            int[] result = null;
+            int resultSize = 0;
+            Long[] sorted = Arrays.stream(keys).boxed().distinct()
+                .sorted(Comparator.comparingInt(k -> {
+                    Postings p = postings.get(k);
+                    return (p == null) ? 0 : p.size;
+                }))
+                .toArray(Long[]::new);
+
+            for (Long key : sorted) {
+                Postings postingList = postings.get(key);
+                if (postingList == null) return new int[0];
+                int[] list = postingList.slots;
+                int n = postingList.size;
+                if (result == null) {
+                    result = Arrays.copyOf(list, n);
+                    resultSize = n;
+                    continue;
+                }
+                int a = 0, b = 0, out = 0;
+                while (a < resultSize && b < n) {
+                    if (result[a] < list[b]) a++;
+                    else if (result[a] > list[b]) b++;
+                    else { result[out++] = result[a]; a++; b++; }
+                }
+                resultSize = out;
+                if (resultSize == 0) return new int[0];
+            }
+            return Arrays.copyOf(result, resultSize);
+        }
+
+        /** Slots containing one trigram, in ascending (insertion) order. */
+        private static final class Postings {
+            int[] slots = new int[4];
+            int size;
+        }
+
+        /**
+         * 0 = no match; higher ranks first.
+         * fields = { studentNumber, lastName, firstName }
+         */
+        private static int score(String[] f, String q) {
+            if (f[0].equals(q)) return 100;
+            if (f[1].equals(q)) return 90;
+            if (f[0].startsWith(q)) return 80;
+            if (f[1].startsWith(q)) return 70;
+            if (f[2].startsWith(q)) return 60;
+            if (f[0].contains(q)) return 40;
+            if (f[1].contains(q)) return 30;
+            if (f[2].contains(q)) return 20;
+            return 0;
+        }
+    }
+}
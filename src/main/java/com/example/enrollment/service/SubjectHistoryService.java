@@ -0,0 +1,197 @@
+package com.example.enrollment.service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import com.example.enrollment.entity.SubjectLog;
+
+/**
+ * Read side of the subject history screen.
+ *
+ * Logs are served newest first in keyset pages on (timestamp, id), with
+ * optional filters on student number, course code, action and date range.
+ * Each filter has a composite index ending in (timestamp, id) (see
+ * {@link SubjectLog}), so a page is an index range scan of page-size rows
+ * however long the history grows. Logs of closed terms live in
+ * {@link SubjectLogArchive}; they are older than every live row, so a page
+ * that runs off the end of the table continues into the archive and the
+ * cursor remembers which of the two the next page starts in.
+ */
+@Service
+public class SubjectHistoryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final RowMapper<SubjectLog> LOG_MAPPER = (rs, rowNum) -> {
+        SubjectLog log = new SubjectLog();
+        log.setId(rs.getLong("id"));
+        log.setStudentNumber(rs.getString("student_number"));
+        log.setAction(rs.getString("action"));
+        log.setCourseCode(rs.getString("course_code"));
+        log.setCourseTitle(rs.getString("course_title"));
+        log.setTimestamp(rs.getTimestamp("timestamp"));
+        log.setPerformedBy(rs.getString("performed_by"));
+        return log;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SubjectLogArchive archive;
+
+    public SubjectHistoryService(JdbcTemplate jdbcTemplate, SubjectLogArchive archive) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+    }
+
+    // Decoded cursor: which store the next page starts in and the last key served
+    private record Position(boolean archived, long afterId, Timestamp afterTs) {}
+
+    /**
+     * Optional filters; blank strings and null dates are ignored. The date
+     * range is inclusive on both ends.
+     */
+    public record Filter(String studentNumber, String courseCode, String action, LocalDate from, LocalDate to) {}
+
+    /**
+     * One page of logs plus the opaque cursor for the next page (null on the last page).
+     */
+    public record Page(List<SubjectLog> logs, String nextCursor) {
+        public boolean hasNext() { return nextCursor != null; }
+    }
+
+    /**
+     * Loads one page, newest first.
+     *
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size   page size, clamped to {@link #MAX_PAGE_SIZE}
+     */
+    public Page findPage(Filter filter, String cursor, int size) {
+        int limit = (size <= 0) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        Position position = decode(cursor);
+
+        if (position != null && position.archived()) {
+            List<SubjectLog> logs = archive.find(filter, position.afterTs().getTime(), position.afterId(), limit + 1);
+            return page(logs, limit, true);
+        }
+
+        List<SubjectLog> logs = findLive(filter, position, limit + 1);
+        if (logs.size() > limit) {
+            return page(logs, limit, false);
+        }
+
+        // Live rows ran out: fill the page from the newest archived rows
+        List<SubjectLog> archived = archive.find(filter, null, 0, limit + 1 - logs.size());
+        if (archived.isEmpty()) {
+            return new Page(logs, null);
+        }
+        boolean endsInArchive = logs.size() < limit;
+        List<SubjectLog> combined = new ArrayList<>(logs.size() + archived.size());
+        combined.addAll(logs);
+        combined.addAll(archived);
+        return page(combined, limit, endsInArchive);
+    }
+
+    private List<SubjectLog> findLive(Filter filter, Position position, int fetch) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT id, student_number, action, course_code, course_title, timestamp, performed_by " +
+            "FROM subject_logs WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+
+        if (hasText(filter.studentNumber())) {
+            sql.append(" AND student_number = ?");
+            args.add(filter.studentNumber().trim());
+        }
+        if (hasText(filter.courseCode())) {
+            // Prefix match keeps the course index usable
+            sql.append(" AND course_code LIKE ?");
+            args.add(escapeLike(filter.courseCode().trim()) + "%");
+        }
+        if (hasText(filter.action())) {
+            sql.append(" AND action = ?");
+            args.add(filter.action().trim().toUpperCase());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND timestamp >= ?");
+            args.add(Timestamp.valueOf(filter.from().atStartOfDay()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND timestamp < ?");
+            args.add(Timestamp.valueOf(filter.to().plusDays(1).atStartOfDay()));
+        }
+
+        appendKeysetPredicate(sql, args, position);
+
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+        args.add(fetch);
+
+        return jdbcTemplate.query(sql.toString(), LOG_MAPPER, args.toArray());
+    }
+
+    // Trims the extra look-ahead row and builds the cursor from the last row kept
+    private static Page page(List<SubjectLog> logs, int limit, boolean lastFromArchive) {
+        if (logs.size() <= limit) {
+            return new Page(logs, null);
+        }
+
+        logs = logs.subList(0, limit);
+        SubjectLog last = logs.get(logs.size() - 1);
+        // "L|A<id>:<epoch millis>", or "L<id>:" for a live log without a timestamp
+        String raw = (lastFromArchive ? "A" : "L") + last.getId() + ":" +
+            ((last.getTimestamp() != null) ? last.getTimestamp().getTime() : "");
+        return new Page(logs, Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Position decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            boolean archived = decoded.startsWith("A");
+            if (archived || decoded.startsWith("L")) decoded = decoded.substring(1);
+            int sep = decoded.indexOf(':');
+            long afterId = Long.parseLong(decoded.substring(0, sep));
+            String millis = decoded.substring(sep + 1);
+            Timestamp afterTs = millis.isEmpty() ? null : new Timestamp(Long.parseLong(millis));
+            if (archived && afterTs == null) return null;
+            return new Position(archived, afterId, afterTs);
+        } catch (RuntimeException e) {
+            return null; // Tampered or stale cursor: start from the first page
+        }
+    }
+
+    /**
+     * Appends "rows strictly after the cursor" for timestamp DESC, id DESC.
+     * MySQL sorts NULL timestamps last in descending order, so they follow
+     * every dated row.
+     */
+    private static void appendKeysetPredicate(StringBuilder sql, List<Object> args, Position position) {
+        if (position == null) return;
+
+        long afterId = position.afterId();
+        Timestamp afterTs = position.afterTs();
+        if (afterTs == null) {
+            sql.append(" AND timestamp IS NULL AND id < ?");
+            args.add(afterId);
+        } else {
+            sql.append(" AND (timestamp < ? OR (timestamp = ? AND id < ?) OR timestamp IS NULL)");
+            args.add(afterTs);
+            args.add(afterTs);
+            args.add(afterId);
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.enrollment.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.enrollment.entity.SubjectLog;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cold storage for subject_logs rows of closed terms.
+ *
+ * The archive job moves every log older than the end of the last closed
+ * term (but never past the start of a term that is still open) out of the
+ * live table into {@link SubjectLogSegment} files under
+ * enrollment.archive.dir. Each run appends new segments and never rewrites
+ * old ones. Rows are deleted from the table only after their segment is
+ * safely on disk, by the exact (timestamp, id) range the segment holds, so
+ * a run interrupted between the two finishes the delete on the next run
+ * without touching rows that were never archived.
+ *
+ * Because archived rows are all older than every live row,
+ * {@link SubjectHistoryService} reads the live table first and continues
+ * into the archive (newest segment first) when a page runs past it.
+ */
+@Service
+public class SubjectLogArchive {
+
+    static final int ROWS_PER_SEGMENT = 1_000_000;
+    private static final int READ_BATCH = 5_000;
+    private static final int DELETE_BATCH = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+
+    // Newest segment first; replaced as a whole when a run adds segments
+    private volatile List<SubjectLogSegment> segments = List.of();
+
+    public SubjectLogArchive(JdbcTemplate jdbcTemplate,
+                             @Value("${enrollment.archive.dir:archive/subject-logs}") String directory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = Paths.get(directory);
+    }
+
+    @PostConstruct
+    void load() throws IOException {
+        Files.createDirectories(directory);
+        List<SubjectLogSegment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.seg")) {
+            for (Path file : files) {
+                loaded.add(SubjectLogSegment.open(file));
+            }
+        }
+        // Leftovers of a run that died mid-write
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.seg.tmp")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        loaded.sort(NEWEST_FIRST);
+        segments = List.copyOf(loaded);
+    }
+
+    private static final Comparator<SubjectLogSegment> NEWEST_FIRST = Comparator
+        .comparingLong(SubjectLogSegment::newestTs)
+        .thenComparingLong(SubjectLogSegment::newestId)
+        .reversed();
+
+    /**
+     * Archived rows covered by the filter and strictly after the cursor
+     * (afterTs null = from the newest archived row), at most limit of them.
+     */
+    List<SubjectLog> find(SubjectHistoryService.Filter filter, Long afterTs, long afterId, int limit) {
+        List<SubjectLog> hits = new ArrayList<>(Math.min(limit, 256));
+        if (limit <= 0) return hits;
+
+        String student = hasText(filter.studentNumber()) ? filter.studentNumber().trim() : null;
+        String course = hasText(filter.courseCode()) ? filter.courseCode().trim().toUpperCase(Locale.ROOT) : null;
+        String action = hasText(filter.action()) ? filter.action().trim() : null;
+        Long minTs = (filter.from() != null) ? Timestamp.valueOf(filter.from().atStartOfDay()).getTime() : null;
+        Long maxTs = (filter.to() != null) ? Timestamp.valueOf(filter.to().plusDays(1).atStartOfDay()).getTime() : null;
+
+        for (SubjectLogSegment segment : segments) {
+            // Wholly at/before the cursor position or newer than the range: skip
+            if (afterTs != null && (segment.oldestTs() > afterTs
+                || (segment.oldestTs() == afterTs && segment.oldestId() >= afterId))) continue;
+            if (maxTs != null && segment.oldestTs() >= maxTs) continue;
+            // This and every older segment predate the range
+            if (minTs != null && segment.newestTs() < minTs) break;
+
+            boolean more = segment.scan(afterTs, afterId, student, minTs, maxTs, row -> {
+                // Same matching rules as the SQL filters (MySQL compares case-insensitively)
+                if (student != null && !student.equalsIgnoreCase(row.studentNumber())) return true;
+                if (course != null && (row.courseCode() == null
+                    || !row.courseCode().toUpperCase(Locale.ROOT).startsWith(course))) return true;
+                if (action != null && !action.equalsIgnoreCase(row.action())) return true;
+                hits.add(row.toLog());
+                return hits.size() < limit;
+            });
+            if (!more) break;
+        }
+        return hits;
+    }
+
+    public long archivedRows() {
+        long total = 0;
+        for (SubjectLogSegment s : segments) total += s.recordCount();
+        return total;
+    }
+
+    // --- ARCHIVE JOB ---
+
+    /**
+     * Moves closed-term logs into new segments.
+     *
+     * @return number of rows archived by this run
+     */
+    @Scheduled(cron = "${enrollment.archive.cron:0 0 3 * * SUN}")
+    public synchronized long archiveClosedTerms() {
+        // Finish a previous run that stopped after writing its segments
+        for (SubjectLogSegment s : segments) deleteArchived(s);
+
+        LocalDate cutoffDate = cutoff();
+        if (cutoffDate == null) return 0;
+        Timestamp before = Timestamp.valueOf(cutoffDate.atStartOfDay());
+
+        List<SubjectLogSegment> written = new ArrayList<>();
+        long total = 0;
+        try {
+            Timestamp cursorTs = null;
+            long cursorId = 0;
+            int sequence = nextSequence();
+            SubjectLogSegment.Writer writer = null;
+            try {
+                while (true) {
+                    List<SubjectLogSegment.Row> rows = readBatch(before, cursorTs, cursorId);
+                    if (rows.isEmpty()) break;
+
+                    for (SubjectLogSegment.Row row : rows) {
+                        if (writer == null) {
+                            writer = new SubjectLogSegment.Writer(segmentPath(sequence));
+                        }
+                        writer.add(row);
+                        total++;
+                        if (writer.records() == ROWS_PER_SEGMENT) {
+                            written.add(publish(writer, sequence++));
+                            writer = null;
+                        }
+                    }
+                    SubjectLogSegment.Row last = rows.get(rows.size() - 1);
+                    cursorTs = new Timestamp(last.timestamp());
+                    cursorId = last.id();
+                }
+                if (writer != null) {
+                    written.add(publish(writer, sequence));
+                    writer = null;
+                }
+            } finally {
+                if (writer != null) writer.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Subject log archive failed", e);
+        }
+
+        if (written.isEmpty()) return 0;
+
+        List<SubjectLogSegment> all = new ArrayList<>(segments);
+        all.addAll(written);
+        all.sort(NEWEST_FIRST);
+        segments = List.copyOf(all);
+
+        for (SubjectLogSegment s : written) deleteArchived(s);
+        System.out.println("Subject Log Archive: moved " + total + " row(s) older than " + cutoffDate +
+            " into " + written.size() + " segment(s)");
+        return total;
+    }
+
+    /**
+     * First day that must stay live: the day after the last closed term
+     * ended, capped at the start of the earliest term still open.
+     */
+    private LocalDate cutoff() {
+        Date closedEnd = jdbcTemplate.queryForObject(
+            "SELECT MAX(end_date) FROM academic_terms WHERE UPPER(status) = 'CLOSED'", Date.class);
+        if (closedEnd == null) return null;
+        LocalDate cutoff = closedEnd.toLocalDate().plusDays(1);
+
+        Date openStart = jdbcTemplate.queryForObject(
+            "SELECT MIN(start_date) FROM academic_terms WHERE status IS NULL OR UPPER(status) <> 'CLOSED'", Date.class);
+        if (openStart != null && openStart.toLocalDate().isBefore(cutoff)) {
+            cutoff = openStart.toLocalDate();
+        }
+        return cutoff;
+    }
+
+    // Rows older than the cutoff, newest first, one keyset batch at a time
+    private List<SubjectLogSegment.Row> readBatch(Timestamp before, Timestamp afterTs, long afterId) {
+        String keyset = (afterTs == null) ? "" : " AND (timestamp < ? OR (timestamp = ? AND id < ?))";
+        Object[] args = (afterTs == null)
+            ? new Object[] { before, READ_BATCH }
+            : new Object[] { before, afterTs, afterTs, afterId, READ_BATCH };
+        return jdbcTemplate.query(
+            "SELECT id, timestamp, student_number, action, course_code, course_title, performed_by " +
+            "FROM subject_logs WHERE timestamp < ?" + keyset + " ORDER BY timestamp DESC, id DESC LIMIT ?",
+            (rs, i) -> new SubjectLogSegment.Row(rs.getLong("id"), rs.getTimestamp("timestamp").getTime(),
+                rs.getString("student_number"), rs.getString("action"), rs.getString("course_code"),
+                rs.getString("course_title"), rs.getString("performed_by")),
+            args);
+    }
+
+    // Deletes exactly the (timestamp, id) range the segment holds; rows in it were read in key order
+    private void deleteArchived(SubjectLogSegment segment) {
+        Timestamp newest = new Timestamp(segment.newestTs());
+        Timestamp oldest = new Timestamp(segment.oldestTs());
+        int deleted;
+        do {
+            // Small batches keep each delete's locks short
+            deleted = jdbcTemplate.update(
+                "DELETE FROM subject_logs WHERE timestamp BETWEEN ? AND ? " +
+                "AND (timestamp < ? OR (timestamp = ? AND id <= ?)) " +
+                "AND (timestamp > ? OR (timestamp = ? AND id >= ?)) LIMIT " + DELETE_BATCH,
+                oldest, newest, newest, newest, segment.newestId(), oldest, oldest, segment.oldestId());
+        } while (deleted > 0);
+    }
+
+    private SubjectLogSegment publish(SubjectLogSegment.Writer writer, int sequence) throws IOException {
+        writer.commit();
+        return SubjectLogSegment.open(segmentPath(sequence));
+    }
+
+    private int nextSequence() throws IOException {
+        int max = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.seg")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                max = Math.max(max, Integer.parseInt(name.substring("segment-".length(), name.length() - ".seg".length())));
+            }
+        }
+        return max + 1;
+    }
+
+    private Path segmentPath(int sequence) {
+        return directory.resolve(String.format("segment-%06d.seg", sequence));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
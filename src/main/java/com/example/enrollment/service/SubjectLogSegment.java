@@ -0,0 +1,388 @@
+package com.example.enrollment.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.example.enrollment.entity.SubjectLog;
+
+/**
+ * One immutable, compressed archive file of subject_logs rows.
+ *
+ * Layout:
+ * <pre>
+ *   magic | block 0 | block 1 | ... | sparse index | footer
+ * </pre>
+ * Records are stored newest first, (timestamp DESC, id DESC) like the
+ * history screen, in Deflate-compressed blocks of {@link #BLOCK_RECORDS}.
+ * The sparse index keeps, per block, the first and last (timestamp, id),
+ * the block's file range and a Bloom filter of the student numbers in it,
+ * so a page read decompresses only the blocks it can match. Each filter is
+ * sized to the block's distinct students (about 10 bits each, 7 probes,
+ * roughly 1% false positives). The file is memory-mapped read-only once
+ * written.
+ */
+final class SubjectLogSegment {
+
+    static final int BLOCK_RECORDS = 256;
+
+    static final int BLOOM_BITS_PER_STUDENT = 10;
+    static final int BLOOM_PROBES = 7;
+
+    private static final byte[] MAGIC = "SLARCH02".getBytes(StandardCharsets.US_ASCII);
+    // Fixed part of an index entry; the filter's word count and words follow it
+    private static final int INDEX_KEY_BYTES = 8 + 8 + 8 + 8 + 8 + 4 + 4;
+    private static final int FOOTER_BYTES = 8 + 4 + 8 + MAGIC.length;
+
+    /** One archived row; timestamp in epoch millis. */
+    record Row(long id, long timestamp, String studentNumber, String action,
+               String courseCode, String courseTitle, String performedBy) {
+
+        SubjectLog toLog() {
+            SubjectLog log = new SubjectLog();
+            log.setId(id);
+            log.setTimestamp(new Date(timestamp));
+            log.setStudentNumber(studentNumber);
+            log.setAction(action);
+            log.setCourseCode(courseCode);
+            log.setCourseTitle(courseTitle);
+            log.setPerformedBy(performedBy);
+            return log;
+        }
+    }
+
+    private final Path path;
+    private final MappedByteBuffer data;
+    private final long recordCount;
+
+    private final long[] firstTs, firstId, lastTs, lastId, offsets;
+    private final int[] lengths, counts;
+    private final long[][] blooms;
+
+    private SubjectLogSegment(Path path, MappedByteBuffer data) {
+        this.path = path;
+        this.data = data;
+
+        int footer = data.capacity() - FOOTER_BYTES;
+        byte[] magic = new byte[MAGIC.length];
+        if (footer >= MAGIC.length) data.get(footer + 20, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalStateException("Not a subject log segment: " + path);
+        }
+        this.recordCount = data.getLong(footer);
+        int blocks = data.getInt(footer + 8);
+        long indexOffset = data.getLong(footer + 12);
+        if (blocks == 0) {
+            throw new IllegalStateException("Empty subject log segment: " + path);
+        }
+
+        firstTs = new long[blocks];
+        firstId = new long[blocks];
+        lastTs = new long[blocks];
+        lastId = new long[blocks];
+        offsets = new long[blocks];
+        lengths = new int[blocks];
+        counts = new int[blocks];
+        blooms = new long[blocks][];
+        int p = (int) indexOffset;
+        for (int b = 0; b < blocks; b++) {
+            firstTs[b] = data.getLong(p);
+            firstId[b] = data.getLong(p + 8);
+            lastTs[b] = data.getLong(p + 16);
+            lastId[b] = data.getLong(p + 24);
+            offsets[b] = data.getLong(p + 32);
+            lengths[b] = data.getInt(p + 40);
+            counts[b] = data.getInt(p + 44);
+            p += INDEX_KEY_BYTES;
+            int words = data.getInt(p);
+            p += 4;
+            blooms[b] = new long[words];
+            for (int w = 0; w < words; w++, p += 8) blooms[b][w] = data.getLong(p);
+        }
+    }
+
+    static SubjectLogSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new SubjectLogSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path path() { return path; }
+    long recordCount() { return recordCount; }
+
+    /** Key of the newest row (first in the file). */
+    long newestTs() { return firstTs[0]; }
+    long newestId() { return firstId[0]; }
+
+    /** Key of the oldest row (last in the file). */
+    long oldestTs() { return lastTs[lastTs.length - 1]; }
+    long oldestId() { return lastId[lastId.length - 1]; }
+
+    // --- READ ---
+
+    /**
+     * Visits rows strictly after (afterTs, afterId) in (timestamp DESC, id DESC)
+     * order (all rows when afterTs is null) until the visitor returns false.
+     * studentNumber, when given, lets blocks be skipped through their Bloom filter;
+     * minTs / maxTs (inclusive / exclusive, nullable) bound the timestamps.
+     */
+    boolean scan(Long afterTs, long afterId, String studentNumber, Long minTs, Long maxTs, RowVisitor visitor) {
+        int hash = (studentNumber != null) ? bloomHash(studentNumber) : 0;
+
+        for (int b = firstCandidateBlock(afterTs, afterId, maxTs); b < counts.length; b++) {
+            if (minTs != null && firstTs[b] < minTs) return true; // the rest of the segment is older
+            if (studentNumber != null && !mightContain(blooms[b], hash, BLOOM_PROBES)) continue;
+
+            for (Row row : readBlock(b)) {
+                if (afterTs != null && !isAfter(row, afterTs, afterId)) continue;
+                if (maxTs != null && row.timestamp() >= maxTs) continue;
+                if (minTs != null && row.timestamp() < minTs) return true;
+                if (!visitor.visit(row)) return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    interface RowVisitor {
+        boolean visit(Row row);
+    }
+
+    private static boolean isAfter(Row row, long ts, long id) {
+        return row.timestamp() < ts || (row.timestamp() == ts && row.id() < id);
+    }
+
+    // Binary search for the first block whose last row could still come after the cursor
+    private int firstCandidateBlock(Long afterTs, long afterId, Long maxTs) {
+        int lo = 0, hi = counts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            boolean tooNew = (afterTs != null && !(lastTs[mid] < afterTs || (lastTs[mid] == afterTs && lastId[mid] < afterId)))
+                || (maxTs != null && lastTs[mid] >= maxTs);
+            if (tooNew) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private List<Row> readBlock(int b) {
+        byte[] compressed = new byte[lengths[b]];
+        data.get((int) offsets[b], compressed);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buf = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buf);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                out.write(buf, 0, n);
+            }
+
+            List<Row> rows = new ArrayList<>(counts[b]);
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+                for (int i = 0; i < counts[b]; i++) {
+                    rows.add(new Row(in.readLong(), in.readLong(), readString(in), readString(in),
+                        readString(in), readString(in), readString(in)));
+                }
+            }
+            return rows;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block " + b + " in " + path, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // --- WRITE ---
+
+    /**
+     * Builds a segment from rows already sorted (timestamp DESC, id DESC).
+     * The file is written under a temporary name, forced to disk and then
+     * renamed, so a crash never leaves a half-written segment behind.
+     */
+    static final class Writer implements AutoCloseable {
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+
+        private final List<Row> pending = new ArrayList<>(BLOCK_RECORDS);
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final DataOutputStream indexOut = new DataOutputStream(index);
+        private long position;
+        private long records;
+        private int blocks;
+        private boolean done;
+
+        Writer(Path target) throws IOException {
+            this.target = target;
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+            write(ByteBuffer.wrap(MAGIC));
+        }
+
+        void add(Row row) throws IOException {
+            pending.add(row);
+            if (pending.size() == BLOCK_RECORDS) flushBlock();
+        }
+
+        long records() { return records + pending.size(); }
+
+        /**
+         * Finishes the file and moves it into place.
+         */
+        void commit() throws IOException {
+            flushBlock();
+            long indexOffset = position;
+            write(ByteBuffer.wrap(index.toByteArray()));
+
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+            footer.putLong(records).putInt(blocks).putLong(indexOffset).put(MAGIC);
+            footer.flip();
+            write(footer);
+
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            done = true;
+        }
+
+        private void flushBlock() throws IOException {
+            if (pending.isEmpty()) return;
+
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            Set<String> students = new HashSet<>();
+            try (DataOutputStream out = new DataOutputStream(raw)) {
+                for (Row row : pending) {
+                    out.writeLong(row.id());
+                    out.writeLong(row.timestamp());
+                    writeString(out, row.studentNumber());
+                    writeString(out, row.action());
+                    writeString(out, row.courseCode());
+                    writeString(out, row.courseTitle());
+                    writeString(out, row.performedBy());
+                    if (row.studentNumber() != null) students.add(row.studentNumber());
+                }
+            }
+
+            long[] bloom = new long[bloomWords(students.size())];
+            for (String student : students) {
+                addToBloom(bloom, bloomHash(student), BLOOM_PROBES);
+            }
+
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            byte[] compressed;
+            try {
+                deflater.setInput(raw.toByteArray());
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(raw.size() / 3 + 64);
+                byte[] buf = new byte[8192];
+                while (!deflater.finished()) {
+                    out.write(buf, 0, deflater.deflate(buf));
+                }
+                compressed = out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+
+            Row first = pending.get(0);
+            Row last = pending.get(pending.size() - 1);
+            indexOut.writeLong(first.timestamp());
+            indexOut.writeLong(first.id());
+            indexOut.writeLong(last.timestamp());
+            indexOut.writeLong(last.id());
+            indexOut.writeLong(position);
+            indexOut.writeInt(compressed.length);
+            indexOut.writeInt(pending.size());
+            indexOut.writeInt(bloom.length);
+            for (long word : bloom) indexOut.writeLong(word);
+
+            write(ByteBuffer.wrap(compressed));
+            records += pending.size();
+            blocks++;
+            pending.clear();
+        }
+
+        private void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!done) {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // --- ENCODING HELPERS ---
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // Words for a filter of about BLOOM_BITS_PER_STUDENT bits per student, rounded up to a power of two
+    static int bloomWords(int distinctStudents) {
+        int words = (Math.max(distinctStudents, 1) * BLOOM_BITS_PER_STUDENT + 63) / 64;
+        return (words <= 1) ? 1 : Integer.highestOneBit(words - 1) << 1;
+    }
+
+    // Student numbers compare case-insensitively like the live table
+    private static int bloomHash(String studentNumber) {
+        return studentNumber.trim().toUpperCase(Locale.ROOT).hashCode();
+    }
+
+    // Double hashing: probe k is h + k * h2 within the filter (its size is a power of two)
+    private static void addToBloom(long[] bloom, int h, int probes) {
+        int h2 = Integer.rotateLeft(h * 0x9E3779B9, 16) | 1;
+        int mask = bloom.length * 64 - 1;
+        for (int k = 0; k < probes; k++) {
+            int bit = (h + k * h2) & mask;
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private static boolean mightContain(long[] bloom, int h, int probes) {
+        int h2 = Integer.rotateLeft(h * 0x9E3779B9, 16) | 1;
+        int mask = bloom.length * 64 - 1;
+        for (int k = 0; k < probes; k++) {
+            int bit = (h + k * h2) & mask;
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+}
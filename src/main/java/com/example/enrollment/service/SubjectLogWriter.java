@@ -0,0 +1,230 @@
+package com.example.enrollment.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous sink for subject_logs audit rows.
+ *
+ * Callers append entries inside their transaction; nothing is queued until
+ * that transaction commits, so rolled-back work leaves no audit trail.
+ * Committed entries go into a bounded queue that a background thread
+ * drains and writes as JDBC batches. When the queue is full the caller
+ * waits briefly and, if there is still no room, writes its own entries
+ * synchronously, so audit rows are never dropped. Whatever is queued at
+ * shutdown is written before the application context closes.
+ */
+@Service
+public class SubjectLogWriter {
+
+    static final String INSERT_SQL =
+        "INSERT INTO subject_logs (student_number, action, course_code, course_title, timestamp, performed_by) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final Object PENDING_KEY = SubjectLogWriter.class.getName() + ".pending";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong overflowWrites = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong maxDepth = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public SubjectLogWriter(JdbcTemplate jdbcTemplate,
+                            @Value("${enrollment.audit.queue-capacity:10000}") int capacity,
+                            @Value("${enrollment.audit.batch-size:500}") int batchSize,
+                            @Value("${enrollment.audit.flush-interval-ms:200}") long flushIntervalMs,
+                            @Value("${enrollment.audit.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    /**
+     * One subject_logs row.
+     */
+    public record Entry(String studentNumber, String action, String courseCode, String courseTitle,
+                        Date timestamp, String performedBy) {
+
+        public static Entry of(String studentNumber, String action, String courseCode, String courseTitle, String performedBy) {
+            return new Entry(studentNumber, action, courseCode, courseTitle, new Date(), performedBy);
+        }
+    }
+
+    /**
+     * Queue depth and throughput counters, for watching backpressure.
+     */
+    public record Stats(int depth, int capacity, long maxDepth, long enqueued, long written,
+                        long batches, long overflowWrites, long failed) {}
+
+    // --- APPEND ---
+
+    public void append(Entry entry) {
+        appendAll(List.of(entry));
+    }
+
+    /**
+     * Queues entries once the current transaction commits (immediately when
+     * there is no transaction).
+     */
+    public void appendAll(List<Entry> entries) {
+        if (entries.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entries);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Entry> pending = (List<Entry>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            List<Entry> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(buffer);
+                    }
+                }
+            });
+            pending = buffer;
+        }
+        pending.addAll(entries);
+    }
+
+    private void enqueue(List<Entry> entries) {
+        List<Entry> overflow = null;
+        for (Entry entry : entries) {
+            boolean queued = false;
+            if (running) {
+                try {
+                    queued = queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (queued) {
+                enqueued.incrementAndGet();
+            } else {
+                if (overflow == null) overflow = new ArrayList<>();
+                overflow.add(entry);
+            }
+        }
+        maxDepth.accumulateAndGet(queue.size(), Math::max);
+
+        if (overflow != null) {
+            // Queue full (or writer stopped): the caller pays for its own rows rather than losing them
+            overflowWrites.addAndGet(overflow.size());
+            write(overflow);
+        }
+    }
+
+    // --- BACKGROUND FLUSH ---
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "subject-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the background thread and writes everything still queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        flush();
+    }
+
+    /**
+     * Writes whatever is queued right now on the calling thread.
+     */
+    public void flush() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                break; // stop() drains the rest
+            } catch (RuntimeException e) {
+                System.out.println("Audit Writer: unexpected error: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (Entry e : batch) {
+            args.add(new Object[] { e.studentNumber(), e.action(), e.courseCode(), e.courseTitle(),
+                new Timestamp(e.timestamp().getTime()), e.performedBy() });
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, args);
+                written.addAndGet(batch.size());
+                batches.incrementAndGet();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt < 2) continue; // one retry for transient connection errors
+                failed.addAndGet(batch.size());
+                System.out.println("Audit Writer: failed to write " + batch.size() + " log row(s): " + e.getMessage());
+                for (Entry entry : batch) {
+                    System.out.println("Audit Writer: lost " + entry);
+                }
+                return;
+            }
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(queue.size(), queue.size() + queue.remainingCapacity(), maxDepth.get(),
+            enqueued.get(), written.get(), batches.get(), overflowWrites.get(), failed.get());
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.enrollment.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.enrollment.util.WeeklyTimetable;
+
+/**
+ * Section-aware waitlist promotion.
+ *
+ * For each course, waiting students form a queue ordered by priority_date.
+ * A fill pass walks every open section of the active terms for the affected
+ * courses and hands out every free seat in queue order, skipping students
+ * who would exceed the 24-unit cap or clash with their current schedule
+ * (they keep their place for the next pass). Entries of students who
+ * already hold the course are closed. The queue is read FOR UPDATE, so two
+ * fills of the same course run one after the other and the second sees the
+ * first one's promotions. All state is loaded with a handful of set-based
+ * queries and the promotions are written as JDBC batches in one transaction.
+ */
+@Service
+public class WaitlistService {
+
+    static final int MAX_UNITS = 24;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final SeatReservationService seatReservationService;
+    private final StudentBalanceService studentBalanceService;
+    private final CatalogService catalogService;
+
+    public WaitlistService(JdbcTemplate jdbcTemplate,
+                           SeatReservationService seatReservationService,
+                           StudentBalanceService studentBalanceService,
+                           CatalogService catalogService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.seatReservationService = seatReservationService;
+        this.studentBalanceService = studentBalanceService;
+        this.catalogService = catalogService;
+    }
+
+    private record Waiting(long waitlistId, long studentId, int courseId) {}
+
+    private static final class OpenSection {
+        final int sectionId;
+        final WeeklyTimetable timetable = new WeeklyTimetable();
+        int freeSeats;
+
+        OpenSection(int sectionId, int freeSeats) {
+            this.sectionId = sectionId;
+            this.freeSeats = freeSeats;
+        }
+    }
+
+    /**
+     * Fills every open seat of the given courses from their waitlists.
+     *
+     * @return number of students promoted
+     */
+    @Transactional
+    public int fill(Collection<Integer> courseIds) {
+        Set<Integer> courses = new LinkedHashSet<>();
+        for (Integer id : courseIds) {
+            if (id != null) courses.add(id);
+        }
+        if (courses.isEmpty()) return 0;
+
+        MapSqlParameterSource params = new MapSqlParameterSource("courses", courses);
+
+        // 1. Per-course queues by priority date, locked until this fill commits
+        Map<Integer, ArrayDeque<Waiting>> queues = new LinkedHashMap<>();
+        Set<Long> studentIds = new LinkedHashSet<>();
+        namedJdbc.query(
+            "SELECT waitlist_id, student_id, course_id FROM student_waitlist " +
+            "WHERE course_id IN (:courses) AND status = 'WAITING' " +
+            "ORDER BY course_id, priority_date ASC, waitlist_id ASC FOR UPDATE",
+            params, rs -> {
+                Waiting w = new Waiting(rs.getLong("waitlist_id"), rs.getLong("student_id"), rs.getInt("course_id"));
+                queues.computeIfAbsent(w.courseId(), k -> new ArrayDeque<>()).add(w);
+                studentIds.add(w.studentId());
+            });
+        if (queues.isEmpty()) return 0;
+
+        // 2. Open sections of the active terms per course (ordered so the emptiest section fills first)
+        List<Integer> termIds = catalogService.current().termIds();
+        String termFilter = termIds.isEmpty()
+            ? "AND term_id IN (SELECT term_id FROM academic_terms WHERE UPPER(status) = 'ACTIVE') "
+            : "AND term_id IN (:terms) ";
+        Map<Integer, List<OpenSection>> sectionsByCourse = new HashMap<>();
+        Map<Integer, OpenSection> sectionsById = new HashMap<>();
+        namedJdbc.query(
+            "SELECT section_id, course_id, COALESCE(max_capacity, " + SeatReservationService.DEFAULT_CAPACITY + ") - enrolled_count AS free " +
+            "FROM class_sections WHERE course_id IN (:courses) " + termFilter +
+            "AND enrolled_count < COALESCE(max_capacity, " + SeatReservationService.DEFAULT_CAPACITY + ") " +
+            "ORDER BY course_id, free DESC, section_id",
+            new MapSqlParameterSource("courses", courses).addValue("terms", termIds), rs -> {
+                OpenSection section = new OpenSection(rs.getInt("section_id"), rs.getInt("free"));
+                sectionsByCourse.computeIfAbsent(rs.getInt("course_id"), k -> new ArrayList<>()).add(section);
+                sectionsById.put(section.sectionId, section);
+            });
+
+        // 3. Meetings of the open sections
+        if (!sectionsById.isEmpty()) namedJdbc.query(
+            "SELECT section_id, day_of_week, start_time, end_time FROM class_schedules WHERE section_id IN (:sections)",
+            new MapSqlParameterSource("sections", sectionsById.keySet()), rs -> {
+                StudentLoads.markMeeting(sectionsById.get(rs.getInt("section_id")).timetable, rs.getObject("day_of_week"),
+                    rs.getTime("start_time"), rs.getTime("end_time"));
+            });
+
+        // 4. Current load of every waiting student: units, enlisted courses and timetable
+        Map<Long, StudentLoads.Load> loads = StudentLoads.load(namedJdbc, studentIds);
+
+        Map<Integer, Integer> unitsByCourse = new HashMap<>();
+        namedJdbc.query(
+            "SELECT course_id, COALESCE(credit_units, 0) AS credit_units FROM courses WHERE course_id IN (:courses)",
+            params, rs -> {
+                unitsByCourse.put(rs.getInt("course_id"), rs.getInt("credit_units"));
+            });
+
+        // 5. Hand out seats in queue order
+        List<Object[]> enlistments = new ArrayList<>();
+        List<Object[]> promoted = new ArrayList<>();
+        List<Object[]> closed = new ArrayList<>();
+        Map<Long, Integer> unitDeltas = new LinkedHashMap<>();
+
+        for (Map.Entry<Integer, ArrayDeque<Waiting>> entry : queues.entrySet()) {
+            int courseId = entry.getKey();
+            List<OpenSection> open = sectionsByCourse.getOrDefault(courseId, List.of());
+            int courseUnits = unitsByCourse.getOrDefault(courseId, 0);
+
+            for (Waiting w : entry.getValue()) {
+                StudentLoads.Load load = loads.get(w.studentId());
+                if (load.courses.contains(courseId)) {
+                    closed.add(new Object[] { w.waitlistId() });          // already enlisted, nothing to wait for
+                    continue;
+                }
+                if (open.stream().noneMatch(s -> s.freeSeats > 0)) continue;
+                if (load.units + courseUnits > MAX_UNITS) continue;       // would pass the unit cap
+
+                for (OpenSection section : open) {
+                    if (section.freeSeats <= 0 || load.timetable.overlaps(section.timetable)) continue;
+
+                    if (!seatReservationService.reserve(section.sectionId)) {
+                        section.freeSeats = 0; // taken concurrently
+                        continue;
+                    }
+                    section.freeSeats--;
+                    load.units += courseUnits;
+                    load.courses.add(courseId);
+                    load.timetable.addAll(section.timetable);
+
+                    enlistments.add(new Object[] { w.studentId(), courseId, section.sectionId });
+                    promoted.add(new Object[] { w.waitlistId() });
+                    unitDeltas.merge(w.studentId(), courseUnits, Integer::sum);
+                    break;
+                }
+            }
+        }
+
+        if (!closed.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE student_waitlist SET status = 'CLOSED' WHERE waitlist_id = ? AND status = 'WAITING'", closed);
+        }
+        if (enlistments.isEmpty()) return 0;
+
+        // 6. Write everything as batches
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO student_enlistments (student_id, course_id, section_id) VALUES (?, ?, ?)", enlistments);
+        jdbcTemplate.batchUpdate(
+            "UPDATE student_waitlist SET status = 'PROMOTED' WHERE waitlist_id = ? AND status = 'WAITING'", promoted);
+        studentBalanceService.applyUnits(unitDeltas);
+
+        System.out.println("Waitlist Promotion: " + enlistments.size() + " student(s) promoted across courses " + courses);
+        return enlistments.size();
+    }
+}
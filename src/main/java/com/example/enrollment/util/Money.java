@@ -0,0 +1,82 @@
+package com.example.enrollment.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point peso amounts held as a plain long count of centavos.
+ *
+ * Fee and balance arithmetic stays in primitive longs (exact, no
+ * allocation); amounts are converted only at the edges, to BigDecimal for
+ * DECIMAL(12,2) columns and to text for the screens.
+ */
+public final class Money {
+
+    public static final long CENTAVOS_PER_PESO = 100;
+
+    private Money() {}
+
+    public static long ofPesos(long pesos) {
+        return Math.multiplyExact(pesos, CENTAVOS_PER_PESO);
+    }
+
+    /**
+     * Centavos of a decimal amount, rounded half-up to the centavo.
+     */
+    public static long of(BigDecimal amount) {
+        if (amount == null) return 0;
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Centavos of a JDBC column value (BigDecimal for DECIMAL columns,
+     * Double for columns not yet migrated), null counting as zero.
+     */
+    public static long of(Object value) {
+        if (value == null) return 0;
+        if (value instanceof BigDecimal d) return of(d);
+        if (value instanceof Long || value instanceof Integer) return ofPesos(((Number) value).longValue());
+        return Math.round(((Number) value).doubleValue() * CENTAVOS_PER_PESO);
+    }
+
+    public static BigDecimal toDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    public static long pesos(long centavos) {
+        return centavos / CENTAVOS_PER_PESO;
+    }
+
+    public static int centavos(long centavos) {
+        return (int) Math.abs(centavos % CENTAVOS_PER_PESO);
+    }
+
+    /**
+     * Share {@code index} of {@code total} split into {@code parts} payments.
+     * The leftover centavos go to the first shares, so the parts always add
+     * back up to the total exactly.
+     */
+    public static long share(long total, int parts, int index) {
+        long base = total / parts;
+        long remainder = total % parts;
+        return (index < Math.abs(remainder)) ? base + Long.signum(remainder) : base;
+    }
+
+    /**
+     * Sum of the first {@code count} shares of {@link #share}.
+     */
+    public static long sharesThrough(long total, int parts, int count) {
+        long base = total / parts;
+        long remainder = total % parts;
+        return base * count + Long.signum(remainder) * Math.min(count, Math.abs(remainder));
+    }
+
+    /**
+     * "1,234.50" style text, the same as the screens' formatDecimal.
+     */
+    public static String format(long centavos) {
+        String sign = (centavos < 0) ? "-" : "";
+        long pesos = Math.abs(pesos(centavos));
+        return sign + String.format("%,d.%02d", pesos, centavos(centavos));
+    }
+}
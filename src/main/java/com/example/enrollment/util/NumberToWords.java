@@ -2,32 +2,145 @@ package com.example.enrollment.util;
 
 import java.math.BigDecimal;
 
-public class NumberToWords {
-    private static final String[] units = { "", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight", "Nine", "Ten", "Eleven", "Twelve", "Thirteen", "Fourteen", "Fifteen", "Sixteen", "Seventeen", "Eighteen", "Nineteen" };
-    private static final String[] tens = { "", "", "Twenty", "Thirty", "Forty", "Fifty", "Sixty", "Seventy", "Eighty", "Ninety" };
-
-    public static String convert(double n) {
-        if (n < 0) return "Minus " + convert(-n);
-        if (n < 20) return units[(int) n];
-        if (n < 100) return tens[(int) n / 10] + ((n % 10 != 0) ? " " : "") + units[(int) n % 10];
-        if (n < 1000) return units[(int) n / 100] + " Hundred" + ((n % 100 != 0) ? " " : "") + convert(n % 100);
-        if (n < 1000000) return convert(n / 1000) + " Thousand" + ((n % 1000 != 0) ? " " : "") + convert(n % 1000);
-        return String.format("%.2f", n);
-    }
-    
+/**
+ * Spells out peso amounts for receipts, e.g. 1,234,567.50 becomes
+ * "One Million Two Hundred Thirty Four Thousand Five Hundred Sixty Seven
+ * Pesos & 50/100 Only".
+ *
+ * Amounts are long centavos. The words for 0..999 and the "00".."99"
+ * centavo suffixes are built once, so spelling an amount is a few table
+ * lookups per three-digit group appended to a StringBuilder. The
+ * convenience methods size one builder per call from the number of
+ * groups, so it never grows or copies; a short-lived builder that size is
+ * cheap enough that a shared or thread-local buffer would not pay for itself.
+ */
+public final class NumberToWords {
+
+    private static final String[] UNITS = { "", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight", "Nine", "Ten", "Eleven", "Twelve", "Thirteen", "Fourteen", "Fifteen", "Sixteen", "Seventeen", "Eighteen", "Nineteen" };
+    private static final String[] TENS = { "", "", "Twenty", "Thirty", "Forty", "Fifty", "Sixty", "Seventy", "Eighty", "Ninety" };
+
+    // Indexed by the power of 1000; covers the whole long range
+    private static final String[] SCALES = { "", " Thousand", " Million", " Billion", " Trillion", " Quadrillion", " Quintillion" };
+
+    private static final String[] BELOW_THOUSAND = new String[1000];
+    private static final String[] CENTAVOS = new String[100];
+
+    static {
+        for (int n = 1; n < 1000; n++) {
+            StringBuilder sb = new StringBuilder();
+            int hundreds = n / 100;
+            int rest = n % 100;
+            if (hundreds > 0) {
+                sb.append(UNITS[hundreds]).append(" Hundred");
+            }
+            if (rest > 0) {
+                if (sb.length() > 0) sb.append(' ');
+                if (rest < 20) {
+                    sb.append(UNITS[rest]);
+                } else {
+                    sb.append(TENS[rest / 10]);
+                    if (rest % 10 != 0) sb.append(' ').append(UNITS[rest % 10]);
+                }
+            }
+            BELOW_THOUSAND[n] = sb.toString();
+        }
+        BELOW_THOUSAND[0] = "";
+        for (int c = 0; c < 100; c++) {
+            CENTAVOS[c] = (c < 10) ? "0" + c : Integer.toString(c);
+        }
+    }
+
+    // Longest group, "Seven Hundred Seventy Seven Quadrillion ", and the peso/centavo suffix
+    private static final int CHARS_PER_GROUP = 40;
+    private static final int AMOUNT_SUFFIX = 24;
+
+    private NumberToWords() {}
+
+    /**
+     * Words for a whole number, e.g. 2,005 becomes "Two Thousand Five".
+     */
+    public static String convert(long n) {
+        StringBuilder sb = new StringBuilder(CHARS_PER_GROUP * groups(n));
+        appendWords(sb, n);
+        return sb.toString();
+    }
+
     public static String convertAmount(BigDecimal amount) {
-        String words = convert(amount.longValue()) + " Pesos";
-        int centavos = amount.remainder(BigDecimal.ONE).multiply(new BigDecimal(100)).intValue();
-        if (centavos > 0) {
-            words += " & " + centavos + "/100";
-        } else {
-            words += " & 00/100 Only";
+        return convertAmount(Money.of(amount));
+    }
+
+    /**
+     * Receipt wording for an amount in centavos, e.g. "Five Hundred Pesos & 50/100 Only".
+     */
+    public static String convertAmount(long centavos) {
+        StringBuilder sb = new StringBuilder(CHARS_PER_GROUP * groups(centavos / 100) + AMOUNT_SUFFIX);
+        appendAmount(sb, centavos);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the receipt wording for an amount in centavos to a caller's
+     * builder, for printing many receipts without a String per amount.
+     */
+    public static StringBuilder appendAmount(StringBuilder sb, long centavos) {
+        if (centavos == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("Amount out of range: " + centavos);
+        }
+        if (centavos < 0) {
+            sb.append("Minus ");
+            centavos = -centavos;
+        }
+        long pesos = centavos / 100;
+        appendWords(sb, pesos);
+        sb.append((pesos == 1) ? " Peso & " : " Pesos & ")
+          .append(CENTAVOS[(int) (centavos % 100)])
+          .append("/100 Only");
+        return sb;
+    }
+
+    /**
+     * Appends the words for a whole number to a caller's builder.
+     */
+    public static StringBuilder appendWords(StringBuilder sb, long n) {
+        if (n == 0) {
+            return sb.append("Zero");
+        }
+        if (n == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("Number out of range: " + n);
         }
-        return words;
+        if (n < 0) {
+            sb.append("Minus ");
+            n = -n;
+        }
+        return appendGroups(sb, n);
     }
 
-	public static Object convertAmount(Double amount) {
-		// TODO Auto-generated method stub
-		return null;
-	}
-}
\ No newline at end of file
+    // n > 0; walks the three-digit groups from the most significant one down
+    private static StringBuilder appendGroups(StringBuilder sb, long n) {
+        long divisor = 1;
+        int scale = 0;
+        while (n / divisor >= 1000) {
+            divisor *= 1000;
+            scale++;
+        }
+        boolean first = true;
+        for (; scale >= 0; scale--, divisor /= 1000) {
+            int group = (int) ((n / divisor) % 1000);
+            if (group == 0) continue;
+            if (!first) sb.append(' ');
+            sb.append(BELOW_THOUSAND[group]).append(SCALES[scale]);
+            first = false;
+        }
+        return sb;
+    }
+
+    // Three-digit groups in |n|, at least one
+    private static int groups(long n) {
+        int groups = 1;
+        while (n >= 1000 || n <= -1000) {
+            n /= 1000;
+            groups++;
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.enrollment.util;
+
+import java.time.LocalTime;
+
+/**
+ * Weekly occupancy bitmap: 7 days x 1440 one-minute slots packed into 158 longs.
+ *
+ * A meeting marks the minutes [start, end), so back-to-back classes (one
+ * ending at 9:00, the next starting at 9:00) share no bit and two
+ * timetables conflict exactly when their bitmaps share a set bit.
+ * Schedules are stored to the minute; a time with seconds is widened to
+ * the minutes it touches. Used for student loads, sections and blocks.
+ */
+public final class WeeklyTimetable {
+
+    public static final int SLOTS_PER_DAY = 24 * 60;                // 1440
+    private static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;  // 158
+
+    private final long[] bits = new long[WORDS];
+
+    /**
+     * Marks a meeting. dayOfWeek follows class_schedules (1 = Monday ... 7 = Sunday);
+     * meetings with a missing day or time are ignored, like the old pairwise check did.
+     */
+    public WeeklyTimetable mark(Integer dayOfWeek, LocalTime start, LocalTime end) {
+        if (dayOfWeek == null || dayOfWeek < 1 || dayOfWeek > 7 || start == null || end == null) return this;
+
+        int from = slotOf(dayOfWeek, start, false);
+        int to = slotOf(dayOfWeek, end, true);
+        if (from >= to) return this;
+
+        // Whole words at a time: a three-hour class spans about three longs
+        int first = from >>> 6, last = (to - 1) >>> 6;
+        long head = -1L << from;
+        long tail = -1L >>> (63 - ((to - 1) & 63));
+        if (first == last) {
+            bits[first] |= head & tail;
+            return this;
+        }
+        bits[first] |= head;
+        for (int i = first + 1; i < last; i++) bits[i] = -1L;
+        bits[last] |= tail;
+        return this;
+    }
+
+    public WeeklyTimetable addAll(WeeklyTimetable other) {
+        for (int i = 0; i < WORDS; i++) bits[i] |= other.bits[i];
+        return this;
+    }
+
+    /**
+     * True when any slot is occupied in both timetables.
+     */
+    public boolean overlaps(WeeklyTimetable other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((bits[i] & other.bits[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * True when the given meeting would collide with this timetable.
+     */
+    public boolean overlaps(Integer dayOfWeek, LocalTime start, LocalTime end) {
+        return overlaps(new WeeklyTimetable().mark(dayOfWeek, start, end));
+    }
+
+    /**
+     * First day (1-7) on which both timetables are occupied, or 0 if none.
+     */
+    public int firstConflictDay(WeeklyTimetable other) {
+        for (int i = 0; i < WORDS; i++) {
+            long common = bits[i] & other.bits[i];
+            if (common != 0) {
+                int slot = (i << 6) + Long.numberOfTrailingZeros(common);
+                return slot / SLOTS_PER_DAY + 1;
+            }
+        }
+        return 0;
+    }
+
+    public boolean isEmpty() {
+        for (long word : bits) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    private static int slotOf(int dayOfWeek, LocalTime time, boolean roundUp) {
+        int slot = time.getHour() * 60 + time.getMinute();
+        if (roundUp && (time.getSecond() != 0 || time.getNano() != 0)) slot++;
+        // 00:00 as an end time means midnight at the end of the day
+        if (roundUp && slot == 0) slot = SLOTS_PER_DAY;
+        return (dayOfWeek - 1) * SLOTS_PER_DAY + Math.min(slot, SLOTS_PER_DAY);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.enrollment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DomainEventOutboxTest {
+
+    @Test
+    void subjectsSurviveTheOutboxColumn() {
+        List<DomainEvent.Subject> subjects = List.of(
+            new DomainEvent.Subject(101, "IT101", "Introduction to Computing"),
+            new DomainEvent.Subject(205, "GE5", "Purposive Communication, Part 1"),
+            new DomainEvent.Subject(300, null, null));
+
+        assertEquals(subjects, DomainEventOutbox.decodeSubjects(DomainEventOutbox.encodeSubjects(subjects)));
+        assertEquals(List.of(), DomainEventOutbox.decodeSubjects(null));
+    }
+
+    @Test
+    void tabsAndLineBreaksInTitlesBecomeSpaces() {
+        String encoded = DomainEventOutbox.encodeSubjects(
+            List.of(new DomainEvent.Subject(1, "CS\t1", "Data\nStructures")));
+
+        assertEquals(List.of(new DomainEvent.Subject(1, "CS 1", "Data Structures")),
+            DomainEventOutbox.decodeSubjects(encoded));
+    }
+
+    @Test
+    void droppedCourseIdsAreDistinct() {
+        DomainEvent.SubjectsDropped dropped = new DomainEvent.SubjectsDropped("2026-00001", List.of(
+            new DomainEvent.Subject(7, "IT7", "Lecture"), new DomainEvent.Subject(7, "IT7", "Lab"),
+            new DomainEvent.Subject(9, "IT9", "Networks")), "Admin", new Date());
+
+        assertEquals(List.of(7, 9), dropped.courseIds());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.enrollment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.enrollment.util.Money;
+
+class FeePlanTest {
+
+    private static final FeePlan PLAN = FeePlan.DEFAULT;
+
+    private static long sum(List<FeePlan.Line> lines) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (FeePlan.Line line : lines) total = total.add(line.getAmount());
+        return Money.of(total);
+    }
+
+    @Test
+    void installmentsAddUpToAssessmentLessDownpayment() {
+        for (int units = 0; units <= 30; units++) {
+            long expected = Math.max(PLAN.assessment(units) - PLAN.downpayment(), 0);
+            assertEquals(expected, sum(PLAN.installments(units, 0)), "units " + units);
+            assertEquals(8, PLAN.installments(units, 0).size());
+        }
+    }
+
+    @Test
+    void unitsAreCappedAndZeroUnitsOweNothing() {
+        assertEquals(0, PLAN.assessment(0));
+        assertEquals(0, PLAN.assessment(-3));
+        assertEquals(0, PLAN.chargedUnits(-3));
+        assertEquals(Money.ofPesos(1500 + 7431 + 18562), PLAN.assessment(1));
+        assertEquals(PLAN.assessment(24), PLAN.assessment(30));
+        assertEquals(Money.ofPesos(24 * 1500), PLAN.tuition(30));
+
+        // Nothing to split below the downpayment, and nothing due beyond the assessment
+        assertEquals(0, sum(PLAN.installments(0, 0)));
+        assertEquals(0, PLAN.amountDue(0, 3));
+    }
+
+    @Test
+    void sharesSplitTotalsExactly() {
+        assertEquals(List.of(126L, 126L, 126L, 125L, 125L, 125L, 125L, 125L),
+            IntStream.range(0, 8).mapToObj(i -> Money.share(1003, 8, i)).toList());
+        for (long total : new long[] { 0, 7, 1003, -1003, Money.ofPesos(54_493) }) {
+            long running = 0;
+            for (int i = 0; i < 8; i++) {
+                running += Money.share(total, 8, i);
+                assertEquals(running, Money.sharesThrough(total, 8, i + 1), total + " through " + (i + 1));
+            }
+            assertEquals(total, running);
+        }
+    }
+
+    @Test
+    void thresholdsCoverInstallmentsInOrder() {
+        // 21 units: 57,493.00 assessed, 54,493.00 over eight installments (681,162.50 each)
+        long first = Money.ofPesos(3000) + 681_163;
+        assertEquals(0, PLAN.installmentsCovered(21, Money.ofPesos(3000)));
+        assertEquals(0, PLAN.installmentsCovered(21, first - 1));
+        assertEquals(1, PLAN.installmentsCovered(21, first));
+        assertEquals(8, PLAN.installmentsCovered(21, PLAN.assessment(21)));
+
+        List<FeePlan.Line> lines = PLAN.installments(21, first + 681_163);
+        assertEquals("PAID", lines.get(1).getStatus());
+        assertEquals("UNPAID", lines.get(2).getStatus());
+        assertEquals(new BigDecimal("6811.63"), lines.get(0).getAmount());
+        assertEquals(new BigDecimal("6811.62"), lines.get(7).getAmount());
+
+        assertEquals(Money.ofPesos(3000), PLAN.amountDue(21, 0));
+        assertEquals(first + 681_163, PLAN.amountDue(21, 2));
+        assertEquals(PLAN.assessment(21), PLAN.amountDue(21, 8));
+
+        assertEquals(0, PLAN.installmentsDueBy(LocalDate.of(2026, 8, 29)));
+        assertEquals(2, PLAN.installmentsDueBy(LocalDate.of(2026, 9, 15)));
+        assertEquals(8, PLAN.installmentsDueBy(LocalDate.of(2027, 1, 1)));
+    }
+
+    @Test
+    void emptyInstallmentListLeavesOnlyTheDownpayment() {
+        FeePlan plan = new FeePlan(5, Money.ofPesos(1000), 21, 0, 0, Money.ofPesos(2000), List.of(), List.of());
+
+        assertEquals(0, plan.installmentCount());
+        assertTrue(plan.installments(12, 0).isEmpty());
+        assertEquals(0, plan.installmentsCovered(12, Money.ofPesos(50_000)));
+        assertEquals(0, plan.installmentsDueBy(LocalDate.of(2030, 1, 1)));
+        assertEquals(Money.ofPesos(2000), plan.amountDue(12, 0));
+        assertEquals(Money.ofPesos(1000), plan.amountDue(1, 0)); // never more than assessed
+    }
+
+    @Test
+    void rejectsInconsistentPlans() {
+        assertThrows(IllegalArgumentException.class, () ->
+            new FeePlan(5, 100, 0, 0, 0, 0, List.of(), List.of()));
+        assertThrows(IllegalArgumentException.class, () ->
+            new FeePlan(5, 100, 21, 0, 0, 0, List.of("1st"), List.of()));
+        assertThrows(IllegalArgumentException.class, () ->
+            new FeePlan(5, 100, FeePlan.MAX_UNIT_CAP + 1, 0, 0, 0, List.of(), List.of()));
+    }
+
+    private static FeeScheduleService.ScheduleRequest request(String rate, Integer unitCap,
+                                                              FeeScheduleService.InstallmentRequest... installments) {
+        return new FeeScheduleService.ScheduleRequest(new BigDecimal(rate), unitCap, new BigDecimal("7431.00"),
+            new BigDecimal("18562"), new BigDecimal("3000"), List.of(installments));
+    }
+
+    @Test
+    void validatesScheduleRequests() {
+        FeeScheduleService.InstallmentRequest aug = new FeeScheduleService.InstallmentRequest("1st", LocalDate.of(2026, 8, 30));
+        FeeScheduleService.InstallmentRequest sep = new FeeScheduleService.InstallmentRequest("2nd", LocalDate.of(2026, 9, 15));
+
+        FeeScheduleService.validate(request("1500.00", 24, aug, sep));
+        FeeScheduleService.validate(request("1500", 1));
+        FeeScheduleService.validate(request("1500", FeePlan.MAX_UNIT_CAP, aug));
+
+        assertThrows(IllegalArgumentException.class, () -> FeeScheduleService.validate(request("1500", null, aug)));
+        assertThrows(IllegalArgumentException.class, () -> FeeScheduleService.validate(request("1500", 0, aug)));
+        assertThrows(IllegalArgumentException.class,
+            () -> FeeScheduleService.validate(request("1500", FeePlan.MAX_UNIT_CAP + 1, aug)));
+        assertThrows(IllegalArgumentException.class,
+            () -> FeeScheduleService.validate(request("1500", Integer.MAX_VALUE, aug)));
+        assertThrows(IllegalArgumentException.class, () -> FeeScheduleService.validate(request("-1", 24, aug)));
+        assertThrows(IllegalArgumentException.class, () -> FeeScheduleService.validate(request("1500.005", 24, aug)));
+        assertThrows(IllegalArgumentException.class, () -> FeeScheduleService.validate(request("1500", 24, sep, aug)));
+        assertThrows(IllegalArgumentException.class, () -> FeeScheduleService.validate(request("1500", 24,
+            new FeeScheduleService.InstallmentRequest(" ", LocalDate.of(2026, 8, 30)))));
+        assertThrows(IllegalArgumentException.class, () -> FeeScheduleService.validate(
+            new FeeScheduleService.ScheduleRequest(new BigDecimal("1500"), 24, null, BigDecimal.ZERO, BigDecimal.ZERO, List.of())));
+    }
+}
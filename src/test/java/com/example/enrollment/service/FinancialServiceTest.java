@@ -0,0 +1,95 @@
+package com.example.enrollment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.ui.ExtendedModelMap;
+
+import com.example.enrollment.entity.Student;
+import com.example.enrollment.repository.AcademicTermRepository;
+import com.example.enrollment.repository.FeeInstallmentRepository;
+import com.example.enrollment.repository.FeeScheduleRepository;
+import com.example.enrollment.repository.PaymentRepository;
+import com.example.enrollment.util.Money;
+
+class FinancialServiceTest {
+
+    // No schedules loaded, so the current plan is FeePlan.DEFAULT
+    private static FeeScheduleService feeSchedules() {
+        return new FeeScheduleService(mock(JdbcTemplate.class), mock(FeeScheduleRepository.class),
+            mock(FeeInstallmentRepository.class), mock(AcademicTermRepository.class));
+    }
+
+    @Test
+    void ledgerPageCostsTwoQueriesOnOneConnection() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet enlisted = mock(ResultSet.class);
+        ResultSet payments = mock(ResultSet.class);
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(enlisted, payments);
+
+        FinancialService service = new FinancialService(new JdbcTemplate(dataSource), mock(PaymentRepository.class),
+            feeSchedules());
+
+        Student student = new Student();
+        student.setId(1L);
+        student.setStudentNumber("2026-00001");
+
+        ExtendedModelMap model = new ExtendedModelMap();
+        service.populateStudentFinancialData(student, model);
+
+        // Every statement goes through a Connection, so this is the query count
+        verify(dataSource, times(1)).getConnection();
+        verify(connection, times(2)).prepareStatement(anyString());
+        verify(connection, never()).createStatement();
+        verify(statement, times(2)).executeQuery();
+
+        assertEquals(0, model.get("totalUnits"));
+        assertEquals(new BigDecimal("0.00"), model.get("outstandingBalance"));
+    }
+
+    @Test
+    void installmentsAddUpToTheAssessmentExactly() {
+        FinancialService service = new FinancialService(mock(JdbcTemplate.class), mock(PaymentRepository.class), feeSchedules());
+        // 7 units: 10,500 + 7,431 + 18,562 = 36,493.00; 33,493.00 over 8 leaves 4 centavos to spread
+        long assessment = service.computeAssessment(7);
+        assertEquals(3_649_300L, assessment);
+
+        // Paid exactly the downpayment plus the first three installments
+        long paid = FeePlan.DEFAULT.downpayment() + Money.sharesThrough(assessment - FeePlan.DEFAULT.downpayment(), 8, 3);
+        ExtendedModelMap model = new ExtendedModelMap();
+        service.populateStudentFinancialData(new StudentLedgerSnapshot(7, paid, List.of(), List.of()), model);
+
+        @SuppressWarnings("unchecked")
+        List<FeePlan.Line> installments = (List<FeePlan.Line>) model.get("installments");
+        BigDecimal total = new BigDecimal("3000.00");
+        for (FeePlan.Line installment : installments) {
+            total = total.add(installment.getAmount());
+        }
+        assertEquals(new BigDecimal("36493.00"), total);
+        assertEquals(new BigDecimal("4186.63"), installments.get(0).getAmount());
+        assertEquals(new BigDecimal("4186.62"), installments.get(7).getAmount());
+        assertEquals("Aug. 30, 2026", installments.get(0).getDueDate());
+        assertEquals("PAID", installments.get(2).getStatus());
+        assertEquals("UNPAID", installments.get(3).getStatus());
+    }
+}
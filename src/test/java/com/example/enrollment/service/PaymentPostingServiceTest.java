@@ -0,0 +1,121 @@
+package com.example.enrollment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.enrollment.entity.Payment;
+import com.example.enrollment.entity.Student;
+import com.example.enrollment.repository.PaymentRepository;
+import com.example.enrollment.util.Money;
+
+class PaymentPostingServiceTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final StudentBalanceService studentBalanceService = mock(StudentBalanceService.class);
+    private final DomainEventOutbox domainEventOutbox = mock(DomainEventOutbox.class);
+
+    private PaymentPostingService service() {
+        when(studentBalanceService.applyPayment(any(), anyLong(), any()))
+            .thenReturn(new StudentBalanceService.Balance(21, Money.ofPesos(5000)));
+        return new PaymentPostingService(paymentRepository, studentBalanceService, domainEventOutbox,
+            mock(ReceiptSnapshotService.class), mock(PlatformTransactionManager.class), 10);
+    }
+
+    private static Student student() {
+        Student student = new Student();
+        student.setId(7L);
+        student.setStudentNumber("2026-00007");
+        student.setApplicantStatus("PENDING");
+        return student;
+    }
+
+    @Test
+    void retryWithTheSameKeyReturnsTheOriginalPosting() {
+        PaymentPostingService service = service();
+        Student student = student();
+
+        PaymentPostingService.Posting first = service.postWalkIn("key-1", student, Money.ofPesos(5000), "CASH", "Tuition Fee");
+        PaymentPostingService.Posting retry = service.postWalkIn("key-1", student, Money.ofPesos(5000), "CASH", "Tuition Fee");
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.transactionId(), retry.transactionId());
+        verify(paymentRepository, times(1)).saveAndFlush(any(Payment.class));
+        verify(studentBalanceService, times(1)).applyPayment(any(), anyLong(), any());
+        verify(domainEventOutbox, times(1)).publish(any(DomainEvent.PaymentPosted.class));
+    }
+
+    @Test
+    void keyAlreadyInTheDatabaseIsNotPostedAgain() {
+        Payment original = new Payment();
+        original.setTransactionId("WLK-ORIGINAL");
+        original.setReferenceNumber("2026-00007");
+        original.setAmountCentavos(Money.ofPesos(5000));
+        original.setRemarks("Tuition Fee");
+        when(paymentRepository.findByIdempotencyKey("key-2")).thenReturn(null, original);
+        when(paymentRepository.saveAndFlush(any(Payment.class)))
+            .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'uk_payments_idempotency_key'"));
+
+        PaymentPostingService.Posting posting =
+            service().postWalkIn("key-2", student(), Money.ofPesos(5000), "CASH", "Tuition Fee");
+
+        assertTrue(posting.replayed());
+        assertEquals("WLK-ORIGINAL", posting.transactionId());
+        verify(studentBalanceService, never()).applyPayment(any(), anyLong(), anyString());
+        verify(domainEventOutbox, never()).publish(any());
+    }
+
+    @Test
+    void keyReusedForADifferentPaymentIsRejected() {
+        PaymentPostingService service = service();
+        Student student = student();
+        service.postWalkIn("key-3", student, Money.ofPesos(5000), "CASH", "Tuition Fee");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> service.postWalkIn("key-3", student, Money.ofPesos(500), "CASH", "Tuition Fee"));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.postWalkIn("key-3", student, Money.ofPesos(5000), "CASH", "Miscellaneous Fee"));
+        verify(paymentRepository, times(1)).saveAndFlush(any(Payment.class));
+    }
+
+    @Test
+    void keyFromTheDatabaseIsCheckedAgainstTheOriginalPayment() {
+        Payment original = new Payment();
+        original.setTransactionId("WLK-ORIGINAL");
+        original.setReferenceNumber("2026-00099");
+        original.setAmountCentavos(Money.ofPesos(5000));
+        original.setRemarks("Tuition Fee");
+        when(paymentRepository.findByIdempotencyKey("key-4")).thenReturn(original);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> service().postWalkIn("key-4", student(), Money.ofPesos(5000), "CASH", "Tuition Fee"));
+        verify(paymentRepository, never()).saveAndFlush(any(Payment.class));
+    }
+
+    @Test
+    void sweepKeepsUnexpiredKeys() {
+        PaymentPostingService service = service();
+        Student student = student();
+        service.postWalkIn("key-5", student, Money.ofPesos(5000), "CASH", "Tuition Fee");
+
+        service.evictExpired();
+
+        // Still cached, so only the first post looked the key up
+        assertTrue(service.postWalkIn("key-5", student, Money.ofPesos(5000), "CASH", "Tuition Fee").replayed());
+        verify(paymentRepository, times(1)).findByIdempotencyKey("key-5");
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.enrollment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class SeatReservationServiceTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private SeatReservationService seats;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute(
+            "CREATE TABLE class_sections (section_id INT PRIMARY KEY, max_capacity INT, " +
+            "enrolled_count INT NOT NULL DEFAULT 0)");
+        jdbcTemplate.update("INSERT INTO class_sections (section_id, max_capacity) VALUES (1, 25)");
+        seats = new SeatReservationService(jdbcTemplate, event -> { });
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedCapacity() throws Exception {
+        int threads = 32;
+        int attemptsPerThread = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int won = 0;
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (seats.reserve(1)) won++;
+                }
+                return won;
+            }));
+        }
+        start.countDown();
+
+        int granted = 0;
+        for (Future<Integer> result : results) granted += result.get();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(25, granted);
+        assertEquals(25, jdbcTemplate.queryForObject(
+            "SELECT enrolled_count FROM class_sections WHERE section_id = 1", Integer.class));
+        assertFalse(seats.reserve(1));
+    }
+
+    @Test
+    void releaseFreesASeat() {
+        jdbcTemplate.update("UPDATE class_sections SET enrolled_count = 25 WHERE section_id = 1");
+        assertFalse(seats.reserve(1));
+
+        seats.release(1);
+
+        assertTrue(seats.reserve(1));
+        assertFalse(seats.reserve(1));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.enrollment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class SettlementImportServiceTest {
+
+    private static final Map<String, Integer> COLUMNS = SettlementImportService.header(
+        List.of("transaction_id", "reference_number", "amount", "payment_date", "payment_method", "remarks"));
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private SettlementImportService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE students (id BIGINT PRIMARY KEY, student_number VARCHAR(50))");
+        jdbcTemplate.execute(
+            "CREATE TABLE payments (id BIGINT AUTO_INCREMENT PRIMARY KEY, transaction_id VARCHAR(255), " +
+            "reference_number VARCHAR(50), amount DECIMAL(12,2), payment_method VARCHAR(50), " +
+            "payment_date TIMESTAMP, remarks VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO students (id, student_number) VALUES (1, '2026-00001'), (2, '2026-00002')");
+        jdbcTemplate.update("INSERT INTO payments (transaction_id, reference_number, amount, payment_date) " +
+            "VALUES ('BNK-OLD', '2026-00001', 100.00, TIMESTAMP '2026-05-01 00:00:00')");
+
+        service = new SettlementImportService(jdbcTemplate, new DataSourceTransactionManager(database),
+            mock(StudentBalanceService.class), mock(FeeScheduleService.class), mock(StudentSearchIndex.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    private static SettlementImportService.Row parse(String line) {
+        return SettlementImportService.parse(2, SettlementImportService.splitCsv(line), COLUMNS);
+    }
+
+    @Test
+    void splitsQuotedFields() {
+        assertEquals(List.of("BNK-1", "Dela Cruz, Ana", "say \"paid\"", ""),
+            SettlementImportService.splitCsv("BNK-1,\"Dela Cruz, Ana\",\"say \"\"paid\"\"\","));
+        assertEquals(List.of(""), SettlementImportService.splitCsv(""));
+    }
+
+    @Test
+    void parsesAmountsWithThousandsSeparatorsAndDefaultsTheMethod() {
+        SettlementImportService.Row row = parse("BNK-1,2026-00001,\"1,250.50\",2026-06-01,,Miscellaneous Fee");
+
+        assertEquals(125_050L, row.centavos());
+        assertEquals("Bank Settlement", row.method());
+        assertEquals("Miscellaneous Fee", row.remarks());
+    }
+
+    @Test
+    void rejectsBadAmountsAndMissingFields() {
+        for (String amount : List.of("abc", "0", "-5.00", "10.005")) {
+            assertThrows(IllegalArgumentException.class,
+                () -> parse("BNK-1,2026-00001," + amount + ",2026-06-01"), amount);
+        }
+        assertThrows(IllegalArgumentException.class, () -> parse("BNK-1,,100.00,2026-06-01"));
+        assertThrows(IllegalArgumentException.class, () -> parse("BNK-1,2026-00001,100.00"));
+    }
+
+    @Test
+    void parsesEachSupportedDateFormat() {
+        assertEquals(LocalDateTime.of(2026, 6, 1, 9, 30), SettlementImportService.parseDate("2026-06-01T09:30:00"));
+        assertEquals(LocalDateTime.of(2026, 6, 1, 9, 30), SettlementImportService.parseDate("2026-06-01 09:30"));
+        assertEquals(LocalDateTime.of(2026, 6, 1, 14, 5, 10), SettlementImportService.parseDate("06/01/2026 14:05:10"));
+        assertEquals(LocalDateTime.of(2026, 6, 1, 0, 0), SettlementImportService.parseDate("2026-06-01"));
+        assertEquals(LocalDateTime.of(2026, 6, 1, 0, 0), SettlementImportService.parseDate("06/01/2026"));
+        assertThrows(IllegalArgumentException.class, () -> SettlementImportService.parseDate("2026-13-01"));
+        assertThrows(IllegalArgumentException.class, () -> SettlementImportService.parseDate("June 1"));
+    }
+
+    @Test
+    void importCountsEachKindOfRejectedLine() throws Exception {
+        String file = "\uFEFFTransaction ID,Reference Number,Amount,Payment Date,Remarks\n" +
+            "BNK-1,2026-00001,500.00,2026-06-01,Miscellaneous Fee\n" +
+            "BNK-1,2026-00001,500.00,2026-06-01,Miscellaneous Fee\n" +   // repeated in the file
+            "BNK-OLD,2026-00001,100.00,2026-05-01,Miscellaneous Fee\n" + // posted by an earlier file
+            "BNK-2,2026-09999,300.00,2026-06-01,Miscellaneous Fee\n" +   // no such student
+            "BNK-3,2026-00002,12.3.4,2026-06-01,Miscellaneous Fee\n" +   // bad amount
+            "\n" +
+            "BNK-4,2026-00002,\"1,000.00\",06/02/2026,Miscellaneous Fee\n";
+
+        SettlementImportService.Report report = service.importCsv(new StringReader(file));
+
+        assertEquals(6, report.lines());
+        assertEquals(2, report.imported());
+        assertEquals(1, report.duplicatesInFile());
+        assertEquals(1, report.alreadyPosted());
+        assertEquals(1, report.unmatched());
+        assertEquals(1, report.invalid());
+        assertEquals(0, report.failedChunks());
+        assertEquals(2, report.errors().size());
+        assertTrue(report.errors().stream().anyMatch(e -> e.startsWith("Line 5: no student")));
+        assertTrue(report.errors().stream().anyMatch(e -> e.startsWith("Line 6: amount")));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments", Integer.class));
+    }
+}
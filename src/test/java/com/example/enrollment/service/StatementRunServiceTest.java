@@ -0,0 +1,114 @@
+package com.example.enrollment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class StatementRunServiceTest {
+
+    private static final int STUDENTS = StatementRunService.CHUNK_SIZE + 200;
+
+    private final CountDownLatch secondChunkWriting = new CountDownLatch(1);
+    private final CountDownLatch releaseSecondChunk = new CountDownLatch(1);
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private StatementRunService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+
+        // Holds the second chunk's insert until the test has read the status
+        AtomicInteger batches = new AtomicInteger();
+        jdbcTemplate = new JdbcTemplate(database) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                if (sql.startsWith("INSERT INTO student_statements") && batches.incrementAndGet() == 2) {
+                    secondChunkWriting.countDown();
+                    try {
+                        releaseSecondChunk.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.batchUpdate(sql, batchArgs);
+            }
+        };
+
+        jdbcTemplate.execute("CREATE TABLE academic_terms (term_id INT PRIMARY KEY, start_date DATE, end_date DATE)");
+        jdbcTemplate.execute("CREATE TABLE students (id BIGINT PRIMARY KEY, student_number VARCHAR(50))");
+        jdbcTemplate.execute("CREATE TABLE courses (course_id INT PRIMARY KEY, credit_units INT)");
+        jdbcTemplate.execute("CREATE TABLE class_sections (section_id INT PRIMARY KEY, term_id INT)");
+        jdbcTemplate.execute("CREATE TABLE student_enlistments (student_id BIGINT, course_id INT, section_id INT)");
+        jdbcTemplate.execute(
+            "CREATE TABLE payments (reference_number VARCHAR(50), amount DECIMAL(12,2), payment_date TIMESTAMP, " +
+            "remarks VARCHAR(255))");
+        jdbcTemplate.execute(
+            "CREATE TABLE statement_runs (run_id BIGINT AUTO_INCREMENT PRIMARY KEY, term_id INT, cutoff_date DATE, " +
+            "status VARCHAR(30), students INT, failed_chunks INT, elapsed_ms BIGINT, started_at TIMESTAMP, " +
+            "finished_at TIMESTAMP, error VARCHAR(500))");
+        jdbcTemplate.execute(
+            "CREATE TABLE student_statements (run_id BIGINT, student_id BIGINT, student_number VARCHAR(50), " +
+            "total_units INT, assessment DECIMAL(12,2), tuition_paid DECIMAL(12,2), balance DECIMAL(12,2), " +
+            "amount_due DECIMAL(12,2), past_due DECIMAL(12,2), installments_due INT, installments_paid INT)");
+
+        jdbcTemplate.update("INSERT INTO academic_terms VALUES (1, DATE '2026-08-01', DATE '2026-12-15')");
+        jdbcTemplate.update("INSERT INTO courses VALUES (10, 3)");
+        jdbcTemplate.update("INSERT INTO class_sections VALUES (100, 1)");
+        jdbcTemplate.update("INSERT INTO students SELECT X, CONCAT('2026-', X) FROM SYSTEM_RANGE(1, " + STUDENTS + ")");
+        jdbcTemplate.update("INSERT INTO student_enlistments SELECT X, 10, 100 FROM SYSTEM_RANGE(1, " + STUDENTS + ")");
+
+        FeeScheduleService feeScheduleService = mock(FeeScheduleService.class);
+        when(feeScheduleService.forTerm(1)).thenReturn(FeePlan.DEFAULT);
+        service = new StatementRunService(jdbcTemplate, feeScheduleService, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSecondChunk.countDown();
+        service.shutdown();
+        database.shutdown();
+    }
+
+    @Test
+    void runningStatusShowsTheChunksWrittenSoFar() throws Exception {
+        long runId = service.start(1, LocalDate.of(2026, 9, 20));
+
+        assertTrue(secondChunkWriting.await(10, TimeUnit.SECONDS));
+        StatementRunService.RunStatus running = service.status(runId);
+        assertEquals("RUNNING", running.status());
+        assertEquals(StatementRunService.CHUNK_SIZE, running.students());
+        assertEquals(0, running.failedChunks());
+        assertNull(running.elapsedMs());
+
+        releaseSecondChunk.countDown();
+        StatementRunService.RunStatus finished = running;
+        for (int i = 0; i < 200 && "RUNNING".equals(finished.status()); i++) {
+            Thread.sleep(50);
+            finished = service.status(runId);
+        }
+        assertEquals("COMPLETED", finished.status());
+        assertEquals(STUDENTS, finished.students());
+        assertEquals(STUDENTS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_statements", Integer.class));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.enrollment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.example.enrollment.entity.Student;
+
+class StudentSearchIndexTest {
+
+    private static Student student(long id, String number, String lastName, String firstName) {
+        Student student = new Student();
+        student.setId(id);
+        student.setStudentNumber(number);
+        student.setLastName(lastName);
+        student.setFirstName(firstName);
+        student.setProgram1("BSIT");
+        student.setApplicantStatus("PENDING");
+        return student;
+    }
+
+    private static ResultSet row(Student s) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(s.getId());
+        when(rs.getString("student_number")).thenReturn(s.getStudentNumber());
+        when(rs.getString("last_name")).thenReturn(s.getLastName());
+        when(rs.getString("first_name")).thenReturn(s.getFirstName());
+        when(rs.getString("program1")).thenReturn(s.getProgram1());
+        when(rs.getString("applicant_status")).thenReturn(s.getApplicantStatus());
+        return rs;
+    }
+
+    private static List<Long> ids(StudentSearchIndex.Result result) {
+        return result.hits().stream().map(StudentSearchIndex.Entry::id).toList();
+    }
+
+    private static StudentSearchIndex index() {
+        StudentSearchIndex index = new StudentSearchIndex(mock(JdbcTemplate.class));
+        index.put(student(1, "2026-00001", "Dela Cruz", "Ana"));
+        index.put(student(2, "2026-00002", "Cruzado", "Ben"));
+        index.put(student(3, "2026-00003", "Cruz", "Carlo"));
+        index.put(student(4, "2026-00004", "Santos", "Cruzita"));
+        index.put(student(5, "2026-00005", "Reyes", "Dan"));
+        return index;
+    }
+
+    @Test
+    void ranksExactThenPrefixThenSubstring() {
+        StudentSearchIndex.Result result = index().search("Cruz", 0, 10);
+
+        // exact surname, surname prefix, first-name prefix, surname substring
+        assertEquals(List.of(3L, 2L, 4L, 1L), ids(result));
+        assertEquals(4, result.total());
+        assertEquals(3L, index().bestMatch("CRUZ"));
+    }
+
+    @Test
+    void exactStudentNumberRanksFirstAndPagesByOffset() {
+        StudentSearchIndex index = index();
+
+        assertEquals(List.of(5L), ids(index.search("2026-00005", 0, 10)));
+
+        StudentSearchIndex.Result firstPage = index.search("2026-0000", 0, 2);
+        StudentSearchIndex.Result secondPage = index.search("2026-0000", 2, 2);
+        assertEquals(5, firstPage.total());
+        assertEquals(2, firstPage.hits().size());
+        assertEquals(2, secondPage.hits().size());
+        assertTrue(ids(secondPage).stream().noneMatch(ids(firstPage)::contains));
+    }
+
+    @Test
+    void queriesShorterThanATrigramScanAndSkipRemovedStudents() {
+        StudentSearchIndex index = index();
+        index.remove(2L);
+
+        // "cr" has no trigram, so this is the linear path
+        assertEquals(List.of(3L, 4L, 1L), ids(index.search(" cr ", 0, 10)));
+        assertEquals(0, index.search("  ", 0, 10).total());
+        assertNull(index.bestMatch("zz"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void updatedStudentIsFoundUnderItsNewNameOnly() {
+        StudentSearchIndex index = index();
+        index.put(student(5, "2026-00005", "Villanueva", "Dan"));
+
+        assertEquals(0, index.search("reyes", 0, 10).total());
+        assertEquals(List.of(5L), ids(index.search("villa", 0, 10)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void putDuringRebuildSurvivesTheSwap() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        StudentSearchIndex index = new StudentSearchIndex(jdbcTemplate);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row(student(1, "2026-00001", "Dela Cruz", "Ana")));
+            handler.processRow(row(student(2, "2026-00002", "Reyes", "Ben")));
+            // Saved after the reader passed these rows: a new student and a rename
+            index.put(student(3, "2026-00003", "Garcia", "Carlo"));
+            index.put(student(2, "2026-00002", "Mendoza", "Ben"));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        index.rebuild();
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(3L), ids(index.search("garcia", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("mendoza", 0, 10)));
+        assertEquals(0, index.search("reyes", 0, 10).total());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.enrollment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SubjectLogSegmentTest {
+
+    @TempDir
+    Path dir;
+
+    // 600 rows (three blocks), newest first, ten students, two rows per timestamp
+    private SubjectLogSegment write() throws Exception {
+        Path file = dir.resolve("segment-000001.seg");
+        try (SubjectLogSegment.Writer writer = new SubjectLogSegment.Writer(file)) {
+            for (int i = 600; i >= 1; i--) {
+                writer.add(new SubjectLogSegment.Row(i, 1_000_000L + (i / 2) * 1000L, "2024-" + (i % 10),
+                    "ADDED", "IT" + i, "Course " + i, "Admin"));
+            }
+            writer.commit();
+        }
+        return SubjectLogSegment.open(file);
+    }
+
+    private static List<Long> ids(SubjectLogSegment segment, Long afterTs, long afterId, String student, int limit) {
+        List<Long> ids = new ArrayList<>();
+        segment.scan(afterTs, afterId, student, null, null, row -> {
+            if (student == null || student.equals(row.studentNumber())) ids.add(row.id());
+            return ids.size() < limit;
+        });
+        return ids;
+    }
+
+    @Test
+    void roundTripsRowsAndKeyRange() throws Exception {
+        SubjectLogSegment segment = write();
+
+        assertEquals(600, segment.recordCount());
+        assertEquals(600, segment.newestId());
+        assertEquals(1, segment.oldestId());
+        assertEquals(1_000_000L + 300 * 1000L, segment.newestTs());
+        assertFalse(Files.exists(dir.resolve("segment-000001.seg.tmp")));
+
+        List<Long> all = ids(segment, null, 0, null, Integer.MAX_VALUE);
+        assertEquals(600, all.size());
+        assertEquals(600L, all.get(0));
+        assertEquals(1L, all.get(599));
+    }
+
+    @Test
+    void scanResumesStrictlyAfterCursorAcrossBlocks() throws Exception {
+        SubjectLogSegment segment = write();
+
+        // Row 345 shares its timestamp with row 344; 344 must still come next
+        long ts = 1_000_000L + (345 / 2) * 1000L;
+        assertEquals(List.of(344L, 343L, 342L), ids(segment, ts, 345, null, 3));
+        assertEquals(List.of(337L, 327L), ids(segment, ts, 345, "2024-7", 2));
+    }
+
+    @Test
+    void bloomFilterStaysSelectiveWithManyStudentsPerBlock() throws Exception {
+        // Every row a different student: 256 distinct students in each of ten blocks
+        Path file = dir.resolve("segment-000002.seg");
+        try (SubjectLogSegment.Writer writer = new SubjectLogSegment.Writer(file)) {
+            for (int i = 2560; i >= 1; i--) {
+                writer.add(new SubjectLogSegment.Row(i, 1_000_000L + i, "2025-" + i, "ADDED", "IT1", "Course", "Admin"));
+            }
+            writer.commit();
+        }
+        SubjectLogSegment segment = SubjectLogSegment.open(file);
+
+        assertEquals(List.of(1234L), ids(segment, null, 0, "2025-1234", 10));
+        assertEquals(List.of(7L), ids(segment, null, 0, "2025-7", 10));
+
+        // Rows visited for students who are not in the file come only from false-positive blocks
+        long visited = 0;
+        for (int i = 0; i < 1000; i++) {
+            long[] count = { 0 };
+            segment.scan(null, 0, "2024-" + i, null, null, row -> { count[0]++; return true; });
+            visited += count[0];
+        }
+        long blocksRead = visited / SubjectLogSegment.BLOCK_RECORDS;
+        assertTrue(blocksRead < 1000 * 10 / 50, "read " + blocksRead + " of 10000 blocks");
+    }
+
+    @Test
+    void bloomFilterSizeFollowsDistinctStudents() {
+        assertEquals(1, SubjectLogSegment.bloomWords(1));
+        assertEquals(1, SubjectLogSegment.bloomWords(6));
+        assertEquals(2, SubjectLogSegment.bloomWords(7));
+        assertEquals(64, SubjectLogSegment.bloomWords(256));
+    }
+}
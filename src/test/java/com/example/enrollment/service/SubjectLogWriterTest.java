@@ -0,0 +1,80 @@
+package com.example.enrollment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class SubjectLogWriterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SubjectLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute(
+            "CREATE TABLE subject_logs (id BIGINT AUTO_INCREMENT PRIMARY KEY, student_number VARCHAR(50), " +
+            "action VARCHAR(20), course_code VARCHAR(50), course_title VARCHAR(255), timestamp TIMESTAMP, " +
+            "performed_by VARCHAR(50))");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        writer = new SubjectLogWriter(jdbcTemplate, 4, 100, 20, 10);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writer.stop();
+        database.shutdown();
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM subject_logs", Integer.class);
+    }
+
+    private static SubjectLogWriter.Entry entry(String course) {
+        return SubjectLogWriter.Entry.of("2024-0001", "ADDED", course, course + " title", "Admin");
+    }
+
+    @Test
+    void committedEntriesAreWrittenAndRolledBackOnesAreNot() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> writer.appendAll(List.of(entry("IT101"), entry("IT102"))));
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.append(entry("IT103"));
+            status.setRollbackOnly();
+        });
+
+        writer.stop();
+        assertEquals(2, rows());
+        assertEquals(2, writer.stats().written());
+    }
+
+    @Test
+    void smallQueueNeverLosesEntries() throws Exception {
+        // 4 slots and a 10 ms offer timeout: bursts overflow into caller-side writes
+        for (int i = 0; i < 20; i++) {
+            writer.append(entry("CS" + i));
+        }
+        writer.stop();
+
+        assertEquals(20, rows());
+        SubjectLogWriter.Stats stats = writer.stats();
+        assertEquals(20, stats.written());
+        assertEquals(0, stats.failed());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.enrollment.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class NumberToWordsTest {
+
+    @Test
+    void spellsEveryGroupAndScale() {
+        assertEquals("Zero", NumberToWords.convert(0));
+        assertEquals("Fifteen", NumberToWords.convert(15));
+        assertEquals("Ninety Nine", NumberToWords.convert(99));
+        assertEquals("One Hundred", NumberToWords.convert(100));
+        assertEquals("Two Thousand Five", NumberToWords.convert(2_005));
+        assertEquals("Seven Hundred Twelve Thousand Forty", NumberToWords.convert(712_040));
+        assertEquals("One Million Two Hundred Thirty Four Thousand Five Hundred Sixty Seven", NumberToWords.convert(1_234_567));
+        assertEquals("Three Billion One", NumberToWords.convert(3_000_000_001L));
+        assertEquals("Minus Forty Two", NumberToWords.convert(-42));
+    }
+
+    @Test
+    void phrasesPesosAndCentavos() {
+        assertEquals("Five Hundred Pesos & 50/100 Only", NumberToWords.convertAmount(Money.ofPesos(500) + 50));
+        assertEquals("Forty Eight Thousand Pesos & 00/100 Only", NumberToWords.convertAmount(Money.ofPesos(48_000)));
+        assertEquals("One Peso & 05/100 Only", NumberToWords.convertAmount(105));
+        assertEquals("Zero Pesos & 75/100 Only", NumberToWords.convertAmount(75));
+        assertEquals("Two Billion Pesos & 01/100 Only", NumberToWords.convertAmount(Money.ofPesos(2_000_000_000L) + 1));
+        assertEquals("Twelve Pesos & 35/100 Only", NumberToWords.convertAmount(new BigDecimal("12.345")));
+    }
+
+    @Test
+    void appendsToACallersBuilder() {
+        StringBuilder sb = new StringBuilder("Amount: ");
+        NumberToWords.appendAmount(sb, Money.ofPesos(3_000));
+        assertEquals("Amount: Three Thousand Pesos & 00/100 Only", sb.toString());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.enrollment.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalTime;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class WeeklyTimetableTest {
+
+    private static WeeklyTimetable meeting(int day, String start, String end) {
+        return new WeeklyTimetable().mark(day, LocalTime.parse(start), LocalTime.parse(end));
+    }
+
+    @Test
+    void backToBackClassesDoNotConflict() {
+        assertFalse(meeting(1, "08:00", "09:00").overlaps(meeting(1, "09:00", "10:30")));
+        assertFalse(meeting(1, "10:30", "12:00").overlaps(meeting(1, "09:00", "10:30")));
+    }
+
+    @Test
+    void timesOffTheFiveMinuteGridAreExact() {
+        // Both would have shared the 9:00-9:05 slot on a five-minute grid
+        assertFalse(meeting(2, "07:30", "09:02").overlaps(meeting(2, "09:03", "10:00")));
+        assertTrue(meeting(2, "07:30", "09:03").overlaps(meeting(2, "09:02", "10:00")));
+        assertFalse(meeting(2, "13:00", "14:20").overlaps(2, LocalTime.of(14, 20), LocalTime.of(15, 40)));
+    }
+
+    @Test
+    void sameTimeOnAnotherDayDoesNotConflict() {
+        WeeklyTimetable monday = meeting(1, "08:00", "11:00");
+        assertFalse(monday.overlaps(meeting(2, "08:00", "11:00")));
+        assertEquals(0, monday.firstConflictDay(meeting(7, "08:00", "11:00")));
+    }
+
+    @Test
+    void reportsTheFirstConflictingDay() {
+        WeeklyTimetable load = meeting(2, "08:00", "09:00").addAll(meeting(4, "13:00", "16:00"));
+        WeeklyTimetable candidate = meeting(4, "15:59", "17:00").addAll(meeting(6, "08:00", "09:00"));
+
+        assertTrue(load.overlaps(candidate));
+        assertEquals(4, load.firstConflictDay(candidate));
+    }
+
+    @Test
+    void longMeetingsAcrossWordsAndMidnight() {
+        WeeklyTimetable evening = meeting(5, "18:00", "00:00"); // 00:00 ends at midnight
+        assertTrue(evening.overlaps(meeting(5, "23:59", "00:00")));
+        assertFalse(evening.overlaps(meeting(6, "00:00", "01:00")));
+        assertTrue(meeting(3, "06:00", "21:00").overlaps(meeting(3, "12:07", "12:08")));
+    }
+
+    @Test
+    void ignoresIncompleteMeetings() {
+        WeeklyTimetable timetable = new WeeklyTimetable()
+            .mark(null, LocalTime.of(8, 0), LocalTime.of(9, 0))
+            .mark(8, LocalTime.of(8, 0), LocalTime.of(9, 0))
+            .mark(1, null, LocalTime.of(9, 0))
+            .mark(1, LocalTime.of(9, 0), LocalTime.of(9, 0));
+        assertTrue(timetable.isEmpty());
+    }
+
+    @Test
+    void agreesWithPairwiseComparison() {
+        Random random = new Random(6);
+        for (int i = 0; i < 5_000; i++) {
+            int dayA = 1 + random.nextInt(7), dayB = 1 + random.nextInt(7);
+            LocalTime startA = LocalTime.of(7 + random.nextInt(12), random.nextInt(60));
+            LocalTime startB = LocalTime.of(7 + random.nextInt(12), random.nextInt(60));
+            LocalTime endA = startA.plusMinutes(1 + random.nextInt(180));
+            LocalTime endB = startB.plusMinutes(1 + random.nextInt(180));
+
+            boolean expected = dayA == dayB && startA.isBefore(endB) && startB.isBefore(endA);
+            boolean actual = new WeeklyTimetable().mark(dayA, startA, endA).overlaps(dayB, startB, endB);
+            assertEquals(expected, actual, dayA + " " + startA + "-" + endA + " vs " + dayB + " " + startB + "-" + endB);
+        }
+    }
+}